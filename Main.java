@@ -1,10 +1,18 @@
 import game.Game;
+import server.GameServer;
 import ui.ChessGUI;
 
 import javax.swing.SwingUtilities;
+import java.io.IOException;
 
 public class Main {
-    public static void main(String[] args) {
+    // "--server [port]" hosts games over TCP without a window; anything else opens the GUI
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+            new GameServer(port).run();
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             Game chessGame = new Game();
             new ChessGUI(chessGame);
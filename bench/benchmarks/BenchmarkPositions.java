@@ -0,0 +1,60 @@
+package benchmarks;
+
+import game.Game;
+import model.Piece;
+import pieces.*;
+
+import java.awt.Point;
+
+/**
+ * Fixed positions shared by all benchmarks. Each one is reached by replaying a
+ * move list through Game, so Game-level benchmarks also get a realistic move history.
+ */
+public final class BenchmarkPositions {
+
+    public enum Phase {
+        // Ruy Lopez after 4...Nf6 (8 plies)
+        OPENING("e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6"),
+
+        // Closed Ruy Lopez, Chigorin main line (28 plies)
+        MIDDLEGAME("e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 e1g1 f8e7 f1e1 b7b5 a4b3 d7d6 "
+                + "c2c3 e8g8 h2h3 c6a5 b3c2 c7c5 d2d4 d8c7 b1d2 c5d4 c3d4 a5c6 d2b3 a6a5"),
+
+        // Long scrappy game down to king, rook, knight and pawns (98 plies)
+        ENDGAME("b1c3 a7a6 g1f3 g8h6 c3b1 e7e6 g2g4 h6g4 b2b3 g4h2 f3h2 f8c5 b1a3 c5a3 c1a3 d8g5 "
+                + "e2e3 g5e3 d2e3 h7h6 d1d7 b8d7 f1a6 a8a6 a1b1 a6a3 e1d2 a3b3 a2b3 h6h5 b1c1 f7f6 "
+                + "c2c4 e8d8 f2f4 b7b5 c4b5 c8b7 c1c7 d8c7 d2d3 b7h1 f4f5 e6f5 e3e4 f5e4 d3c2 h8h7 "
+                + "h2g4 h5g4 c2c1 c7b8 c1d2 h1f3 d2c1 g7g5 c1b1 h7h6 b1c1 d7f8 c1b1 f8g6 b1b2 f3e2 "
+                + "b5b6 h6h2 b2b1 h2h5 b1c2 e2b5 b6b7 b8b7 c2b1 b7b8 b3b4 b5a6 b1b2 b8a8 b2a3 a6b5 "
+                + "a3b3 h5h2 b3a3 a8b8 a3b3 b8c7 b3a3 g4g3 a3b3 b5d3 b3a3 h2h5 a3a4 c7d6 b4b5 d3b5 "
+                + "a4b5 g6e7");
+
+        private final String moves;
+
+        Phase(String moves) {
+            this.moves = moves;
+        }
+    }
+
+    private BenchmarkPositions() {
+    }
+
+    // Plays the phase's move list from the starting position
+    public static Game createGame(Phase phase) {
+        Game game = new Game();
+        for (String uci : phase.moves.split(" ")) {
+            Point start = toPoint(uci.substring(0, 2));
+            Point end = toPoint(uci.substring(2, 4));
+            Piece.Color color = game.getCurrentPlayerTurn();
+            Piece promotion = uci.length() > 4 ? new Queen(color, null) : null;
+            if (!game.makeMove(start, end, promotion)) {
+                throw new IllegalStateException("Illegal move in " + phase + " fixture: " + uci);
+            }
+        }
+        return game;
+    }
+
+    private static Point toPoint(String square) {
+        return new Point(square.charAt(0) - 'a', 8 - (square.charAt(1) - '0'));
+    }
+}
\ No newline at end of file
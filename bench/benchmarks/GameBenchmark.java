@@ -0,0 +1,59 @@
+package benchmarks;
+
+import game.Game;
+import model.Board;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the Game methods the GUI calls on every click and timer tick.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions.Phase phase;
+
+    private Game game;
+    private List<Point> ownPieceSquares;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = BenchmarkPositions.createGame(phase);
+        ownPieceSquares = new ArrayList<>();
+        long ownPieces = game.getBoard().getOccupancy(game.getCurrentPlayerTurn());
+        while (ownPieces != 0) {
+            int square = Long.numberOfTrailingZeros(ownPieces);
+            ownPieces &= ownPieces - 1;
+            ownPieceSquares.add(new Point(Board.fileOf(square), Board.rankOf(square)));
+        }
+    }
+
+    // Legal destinations for every piece of the side to move, as if each were clicked once
+    @Benchmark
+    public void getLegalMovesForPiece(Blackhole blackhole) {
+        for (Point square : ownPieceSquares) {
+            blackhole.consume(game.getLegalMovesForPiece(square));
+        }
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return game.isGameOver();
+    }
+
+    @Benchmark
+    public List<String> getFormattedMoveHistory() {
+        return game.getFormattedMoveHistory();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import game.Game;
+import model.Board;
+import model.Move;
+import model.Piece;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import rules.ChessMoveValidator;
+import rules.MoveGenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the board and rules hot paths. The validator benchmarks run
+ * over every pseudo-legal move of the side to move, so one op covers the same
+ * work a legality filter does for a whole position.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions.Phase phase;
+
+    private Board board;
+    private Piece.Color sideToMove;
+    private ChessMoveValidator validator;
+    private List<Move> candidateMoves;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Game game = BenchmarkPositions.createGame(phase);
+        board = game.getBoard();
+        sideToMove = game.getCurrentPlayerTurn();
+        validator = new ChessMoveValidator();
+        candidateMoves = new MoveGenerator(validator).generatePseudoLegalMoves(board, sideToMove);
+    }
+
+    @Benchmark
+    public Board boardCopy() {
+        return board.copy();
+    }
+
+    @Benchmark
+    public void isValidMove(Blackhole blackhole) {
+        for (Move move : candidateMoves) {
+            blackhole.consume(validator.isValidMove(board, move, null));
+        }
+    }
+
+    @Benchmark
+    public boolean isKingInCheck() {
+        return validator.isKingInCheck(board, sideToMove);
+    }
+
+    @Benchmark
+    public void leavesKingInCheck(Blackhole blackhole) {
+        for (Move move : candidateMoves) {
+            blackhole.consume(validator.leavesKingInCheck(board, move, sideToMove));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package engine;
+
+import game.Game;
+import model.Board;
+import model.Move;
+import model.PackedMove;
+import model.Piece;
+import model.Position;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A computer player. Searches run on a dedicated background thread against a
+ * board built from an immutable snapshot of the position, so the caller
+ * (normally the Swing EDT) never blocks and the live board is never touched mid-search. The chosen move is played
+ * through {@link Game#makeMove}, exactly like a human move.
+ */
+public class EnginePlayer {
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 2000;
+    private static final int MAX_DEPTH = 64;
+
+    private final Piece.Color color;
+    private final long timeBudgetMillis;
+    private final Search search = new Search();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "engine-search");
+        thread.setDaemon(true); // never keeps the application alive on exit
+        return thread;
+    });
+    // Bumped by stop(); a search gives up once this no longer matches the count seen when it was requested
+    private final AtomicLong stopRequests = new AtomicLong();
+
+    public EnginePlayer(Piece.Color color) {
+        this(color, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    public EnginePlayer(Piece.Color color, long timeBudgetMillis) {
+        this.color = color;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    public Piece.Color getColor() {
+        return color;
+    }
+
+    /**
+     * Starts searching the given position in the background.
+     * Only an O(1) snapshot and the keys of the positions since the last
+     * capture or pawn move are taken on the calling thread; the search thread
+     * builds its own board from the snapshot and avoids repeating the game's
+     * earlier positions.
+     *
+     * @param board The position to search, with the engine's side to move;
+     *              the board the game was played on, so its history is known.
+     * @return A future completed on the search thread with the chosen move and metrics.
+     */
+    public CompletableFuture<SearchResult> think(Board board) {
+        Position position = board.snapshot();
+        long[] history = board.getRepetitionHistory();
+        long stopsSoFar = stopRequests.get();
+        return CompletableFuture.supplyAsync(() -> search.search(position.toBoard(), history, timeBudgetMillis, MAX_DEPTH,
+                () -> stopRequests.get() != stopsSoFar), executor);
+    }
+
+    /**
+     * Plays a search result on the game. Must be called on the thread that owns
+     * the game, and only while the game is still in the searched position.
+     *
+     * @return true if the move was accepted by the game.
+     */
+    public boolean playMove(Game game, SearchResult result) {
+        if (result.getBestMove() == PackedMove.NONE) {
+            return false;
+        }
+        Move move = PackedMove.toMove(result.getBestMove(), game.getBoard());
+        return game.makeMove(move.getStart(), move.getEnd(), move.getPromotedPieceType());
+    }
+
+    // Cuts short every search requested so far, including any not yet started; their futures still
+    // complete, with the best move found so far
+    public void stop() {
+        stopRequests.incrementAndGet();
+    }
+
+    public void shutdown() {
+        stop();
+        executor.shutdownNow();
+    }
+}
\ No newline at end of file
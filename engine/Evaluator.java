@@ -0,0 +1,48 @@
+package engine;
+
+import model.Board;
+import model.Piece;
+import model.PieceSquareTables;
+
+/**
+ * Static evaluation in centipawns from the side to move's point of view.
+ * Combines material and piece-square tables (see {@link PieceSquareTables}),
+ * blended from middlegame to endgame values as pieces come off, plus a
+ * bishop-pair bonus. Board keeps the material and table sums up to date as
+ * moves are made, so an evaluation is O(1) and never scans the board.
+ */
+public class Evaluator {
+    private static final int BISHOP_PAIR_BONUS = 30;
+    // Non-pawn material of both sides in the starting position; below it the endgame tables take over
+    private static final int OPENING_NON_PAWN_MATERIAL = 2 * (2 * PieceSquareTables.value(Piece.Type.KNIGHT)
+            + 2 * PieceSquareTables.value(Piece.Type.BISHOP)
+            + 2 * PieceSquareTables.value(Piece.Type.ROOK)
+            + PieceSquareTables.value(Piece.Type.QUEEN));
+
+    /**
+     * Evaluates the position.
+     *
+     * @param board The position to evaluate.
+     * @return The score in centipawns, positive when the side to move is better.
+     */
+    public int evaluate(Board board) {
+        int middlegame = board.getMiddlegameScore(Piece.Color.WHITE) - board.getMiddlegameScore(Piece.Color.BLACK);
+        int endgame = board.getEndgameScore(Piece.Color.WHITE) - board.getEndgameScore(Piece.Color.BLACK);
+        int phase = Math.min(nonPawnMaterial(board, Piece.Color.WHITE) + nonPawnMaterial(board, Piece.Color.BLACK),
+                OPENING_NON_PAWN_MATERIAL);
+        int score = (middlegame * phase + endgame * (OPENING_NON_PAWN_MATERIAL - phase)) / OPENING_NON_PAWN_MATERIAL;
+
+        score += board.getMaterial(Piece.Color.WHITE) - board.getMaterial(Piece.Color.BLACK);
+        score += bishopPair(board, Piece.Color.WHITE) - bishopPair(board, Piece.Color.BLACK);
+        return board.getSideToMove() == Piece.Color.WHITE ? score : -score;
+    }
+
+    private int nonPawnMaterial(Board board, Piece.Color color) {
+        return board.getMaterial(color)
+                - PieceSquareTables.value(Piece.Type.PAWN) * Long.bitCount(board.getBitboard(color, Piece.Type.PAWN));
+    }
+
+    private int bishopPair(Board board, Piece.Color color) {
+        return Long.bitCount(board.getBitboard(color, Piece.Type.BISHOP)) >= 2 ? BISHOP_PAIR_BONUS : 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,357 @@
+package engine;
+
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+import model.Piece;
+import model.PieceSquareTables;
+import rules.ChessMoveValidator;
+import rules.MoveGenerator;
+import rules.PositionTable;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Negamax alpha-beta search with iterative deepening under a time budget.
+ * Each iteration searches the previous iteration's best move first, captures
+ * are ordered most-valuable-victim / least-valuable-attacker, and leaf nodes
+ * are resolved with a captures-only quiescence search. Results go into a
+ * {@link PositionTable}, which supplies the first move to try and cuts off
+ * positions already searched deeply enough, including by other threads.
+ * A Search plays moves on the board it is given, so callers running it on
+ * another thread must hand it a copy (see {@link EnginePlayer}).
+ */
+public class Search {
+    public static final int MATE_SCORE = 100_000;
+    // Scores above this are forced mates, with the distance encoded in the difference
+    public static final int MATE_THRESHOLD = MATE_SCORE - 1000;
+    private static final int INFINITY = MATE_SCORE + 1;
+    private static final int DRAW_SCORE = 0;
+
+    private static final int MAX_PLY = 128;
+    // Game positions before the root that can still repeat; beyond 100 plies the fifty-move rule has drawn anyway
+    private static final int MAX_HISTORY = 100;
+    // How often (in nodes) the clock is checked; checking every node would dominate the search
+    private static final int TIME_CHECK_INTERVAL = 2048;
+
+    private final MoveGenerator moveGenerator = new MoveGenerator(new ChessMoveValidator());
+    private final Evaluator evaluator;
+    private final PositionTable positionTable;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] moveScores = new int[MAX_PLY][256];
+    // Keys of the game's positions before the root, then of the current search path, for repetition detection
+    private final long[] pathKeys = new long[MAX_HISTORY + MAX_PLY];
+    private int rootIndex; // Where the root's key goes in pathKeys
+
+    private Board board;
+    private long nodes;
+    private long deadlineNanos;
+    private volatile boolean stopped;
+    private BooleanSupplier cancelled; // The caller's cancellation for the running search
+    private int rootBestMove;
+
+    public Search() {
+        this(new Evaluator(), PositionTable.getShared());
+    }
+
+    public Search(Evaluator evaluator, PositionTable positionTable) {
+        this.evaluator = evaluator;
+        this.positionTable = positionTable;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches the position for the side to move, deepening one ply at a time
+     * until the time budget or the depth limit is reached. Only repetitions
+     * within the search are seen; see the overload taking the game's history.
+     *
+     * @param board The position to search; played on and restored.
+     * @param timeBudgetMillis How long to search for.
+     * @param maxDepth The deepest iteration to start.
+     * @return The best move of the deepest completed iteration, with search metrics.
+     */
+    public SearchResult search(Board board, long timeBudgetMillis, int maxDepth) {
+        return search(board, new long[0], timeBudgetMillis, maxDepth);
+    }
+
+    /**
+     * Searches as above, also scoring as a draw any line that returns to a
+     * position the game has already been in.
+     *
+     * @param history Keys of the game's positions before this one since the
+     *                last irreversible move, oldest first (see
+     *                {@link Board#getRepetitionHistory()}).
+     */
+    public SearchResult search(Board board, long[] history, long timeBudgetMillis, int maxDepth) {
+        return search(board, history, timeBudgetMillis, maxDepth, () -> false);
+    }
+
+    /**
+     * Searches as above until the cancellation reports true, which is checked
+     * along with the clock. Unlike {@link #stop()}, a cancellation made before
+     * the search starts is not lost: the search then returns a legal move at
+     * once.
+     *
+     * @param cancelled Polled from the search thread; must be thread-safe.
+     */
+    public SearchResult search(Board board, long[] history, long timeBudgetMillis, int maxDepth,
+                               BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+        rootIndex = Math.min(history.length, MAX_HISTORY);
+        System.arraycopy(history, history.length - rootIndex, pathKeys, 0, rootIndex);
+        this.board = board;
+        this.nodes = 0;
+        this.stopped = false;
+        long startNanos = System.nanoTime();
+        this.deadlineNanos = startNanos + timeBudgetMillis * 1_000_000L;
+
+        // Fall back to the first legal move in case not even depth 1 finishes
+        MoveList rootMoves = new MoveList();
+        moveGenerator.generateLegalMoves(board, rootMoves);
+        int bestMove = rootMoves.isEmpty() ? PackedMove.NONE : rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        rootBestMove = bestMove;
+        for (int depth = 1; depth <= Math.min(maxDepth, MAX_PLY - 1) && !rootMoves.isEmpty(); depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break;
+            }
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+
+            // A forced mate will not get any better with more depth
+            if (Math.abs(score) >= MATE_THRESHOLD || System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, elapsedMillis);
+    }
+
+    // Asks the running search to return as soon as possible; safe to call from any thread.
+    // Forgotten if no search is running yet: the next one starts afresh
+    public void stop() {
+        stopped = true;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (shouldStop()) {
+            return 0;
+        }
+        nodes++;
+        long key = board.getZobristKey();
+        pathKeys[rootIndex + ply] = key;
+
+        if (ply > 0 && (board.getHalfmoveClock() >= 100 || isRepetition(ply))) {
+            return DRAW_SCORE;
+        }
+
+        Piece.Color side = board.getSideToMove();
+        Piece.Color opponent = (side == Piece.Color.WHITE) ? Piece.Color.BLACK : Piece.Color.WHITE;
+        boolean inCheck = board.isSquareAttacked(board.getKingSquare(side), opponent);
+        // Extend checks so the search does not stop just before a mate
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        int hashMove = rootBestMove;
+        if (ply > 0) {
+            long entry = positionTable.probe(key);
+            hashMove = PositionTable.bestMove(entry);
+            if (entry != PositionTable.MISS && PositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(PositionTable.score(entry), ply);
+                int bound = PositionTable.bound(entry);
+                if (bound == PositionTable.BOUND_EXACT
+                        || (bound == PositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == PositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        moveGenerator.generateLegalMoves(board, moves);
+        if (moves.isEmpty()) {
+            // Prefer quicker mates by scoring them relative to the distance from the root
+            return inCheck ? -MATE_SCORE + ply : DRAW_SCORE;
+        }
+        scoreMoves(moves, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNextMove(moves, ply, i);
+            board.makeMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        int bound = bestScore <= originalAlpha ? PositionTable.BOUND_UPPER
+                : bestScore >= beta ? PositionTable.BOUND_LOWER
+                : PositionTable.BOUND_EXACT;
+        positionTable.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    // Mate scores count plies from the root; the table stores them relative to the position itself
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_THRESHOLD) {
+            return score + ply;
+        }
+        if (score <= -MATE_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_THRESHOLD) {
+            return score - ply;
+        }
+        if (score <= -MATE_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    // Only captures and promotions are searched, so the static evaluation is never taken mid-exchange
+    private int quiescence(int alpha, int beta, int ply) {
+        if (shouldStop()) {
+            return 0;
+        }
+        nodes++;
+
+        int standPat = evaluator.evaluate(board);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        moveGenerator.generateLegalMoves(board, moves);
+
+        // Keep only the tactical moves
+        int kept = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+        scoreMoves(moves, ply, PackedMove.NONE);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNextMove(moves, ply, i);
+            board.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private boolean shouldStop() {
+        if (!stopped && (nodes % TIME_CHECK_INTERVAL) == 0
+                && (System.nanoTime() >= deadlineNanos || cancelled.getAsBoolean())) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    // Only positions with the same side to move can repeat, so step back two plies at a time,
+    // through the search path and on into the game's history
+    private boolean isRepetition(int ply) {
+        int index = rootIndex + ply;
+        long key = pathKeys[index];
+        int limit = Math.max(0, index - board.getHalfmoveClock());
+        for (int previous = index - 2; previous >= limit; previous -= 2) {
+            if (pathKeys[previous] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scoreMoves(MoveList moves, int ply, int hashMove) {
+        int[] scores = moveScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = 0;
+            if (move == hashMove) {
+                score = 1_000_000;
+            } else if (PackedMove.isCapture(move)) {
+                // Most valuable victim first, then least valuable attacker
+                int victim = PackedMove.isEnPassant(move)
+                        ? PieceSquareTables.value(Piece.Type.PAWN)
+                        : PieceSquareTables.value(board.getPieceType(PackedMove.to(move)));
+                int attacker = PieceSquareTables.value(board.getPieceType(PackedMove.from(move)));
+                score = 100_000 + victim * 10 - attacker;
+            }
+            if (PackedMove.isPromotion(move)) {
+                score += 50_000 + PieceSquareTables.value(PackedMove.promotionType(move));
+            }
+            scores[i] = score;
+        }
+    }
+
+    // Selection sort one step at a time: cheap when a cutoff comes early, which it usually does
+    private int pickNextMove(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves.get(index);
+            moves.set(index, moves.get(best));
+            moves.set(best, move);
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves.get(index);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package engine;
+
+import model.PackedMove;
+
+/**
+ * The outcome of a search: the move to play plus the metrics we track
+ * (depth reached, nodes searched and nodes per second).
+ */
+public class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Packed move (see PackedMove), or PackedMove.NONE if there was no legal move
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    // Centipawns from the side to move's point of view
+    public int getScore() {
+        return score;
+    }
+
+    // Deepest fully completed iteration
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedMillis > 0 ? nodes * 1000 / elapsedMillis : nodes;
+    }
+
+    @Override
+    public String toString() {
+        return "bestmove " + (bestMove == PackedMove.NONE ? "(none)" : PackedMove.toUci(bestMove))
+                + " score " + score + " depth " + depth + " nodes " + nodes
+                + " time " + elapsedMillis + "ms nps " + getNodesPerSecond();
+    }
+}
\ No newline at end of file
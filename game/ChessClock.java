@@ -0,0 +1,195 @@
+package game;
+
+import model.Piece;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A two-sided chess clock measured with {@link System#nanoTime()}, so it is
+ * unaffected by changes to the wall clock. Nothing polls it: time is charged
+ * when a turn ends, and while a side's clock runs there is exactly one task
+ * on a scheduler, due at the moment its flag would fall. A stopped clock has
+ * no task at all, so any number of idle games cost no CPU.
+ *
+ * <p>The clock may be used from any thread. When a flag falls the listener
+ * is called once, on the scheduler's thread.
+ */
+public class ChessClock {
+    // One thread times every clock in the JVM; cancelled deadlines are dropped from its queue at once
+    private static final ScheduledThreadPoolExecutor SHARED_SCHEDULER = createSharedScheduler();
+
+    private final TimeControl timeControl;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<Piece.Color> flagFallListener;
+    private final long[] remainingNanos = new long[2]; // by Color ordinal, as of the start of the running turn
+    private Piece.Color running; // null while stopped
+    private long turnStartNanos;
+    private long turn; // Counts turns, so a deadline that fires after its turn ended is ignored
+    private ScheduledFuture<?> deadline;
+    private Piece.Color flagged;
+
+    /**
+     * Creates a stopped clock timed by the shared scheduler.
+     *
+     * @param timeControl The starting time, increment and delay.
+     * @param flagFallListener Told which side ran out of time.
+     */
+    public ChessClock(TimeControl timeControl, Consumer<Piece.Color> flagFallListener) {
+        this(timeControl, SHARED_SCHEDULER, flagFallListener);
+    }
+
+    public ChessClock(TimeControl timeControl, ScheduledExecutorService scheduler,
+                      Consumer<Piece.Color> flagFallListener) {
+        this.timeControl = timeControl;
+        this.scheduler = scheduler;
+        this.flagFallListener = flagFallListener;
+        long initialNanos = TimeUnit.MILLISECONDS.toNanos(timeControl.getInitialMillis());
+        remainingNanos[0] = initialNanos;
+        remainingNanos[1] = initialNanos;
+    }
+
+    public TimeControl getTimeControl() {
+        return timeControl;
+    }
+
+    /**
+     * Starts the given side's clock, first stopping the other side's if it
+     * runs. No increment is given; use {@link #press} when a move was made.
+     * Does nothing once a flag has fallen.
+     */
+    public synchronized void start(Piece.Color side) {
+        endTurn();
+        if (flagged == null) {
+            startTurn(side);
+        }
+    }
+
+    /**
+     * Ends the mover's turn after a move: charges the time used, adds the
+     * increment and starts the opponent's clock.
+     */
+    public synchronized void press(Piece.Color mover) {
+        endTurn();
+        if (flagged != null) {
+            return;
+        }
+        remainingNanos[mover.ordinal()] += TimeUnit.MILLISECONDS.toNanos(timeControl.getIncrementMillis());
+        startTurn(mover == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE);
+    }
+
+    /** Stops whichever clock is running, charging its time so far. */
+    public synchronized void stop() {
+        endTurn();
+    }
+
+    public synchronized boolean isRunning() {
+        return running != null;
+    }
+
+    /** The side whose clock is running, or null if stopped. */
+    public synchronized Piece.Color getRunningSide() {
+        return running;
+    }
+
+    /**
+     * The time a side has left, counting the running turn up to now. The
+     * delay of the running turn is not included.
+     */
+    public synchronized long getRemainingMillis(Piece.Color side) {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, remainingNanosNow(side, System.nanoTime())));
+    }
+
+    /**
+     * The side that ran out of time, or null if neither has. A deadline that
+     * has passed counts even if the scheduler has not got to it yet.
+     */
+    public synchronized Piece.Color getFlagged() {
+        if (flagged == null && running != null && remainingNanosNow(running, System.nanoTime()) <= 0) {
+            flagFall();
+        }
+        return flagged;
+    }
+
+    private long remainingNanosNow(Piece.Color side, long now) {
+        long remaining = remainingNanos[side.ordinal()];
+        if (side == running) {
+            remaining -= Math.max(0, now - turnStartNanos - delayNanos());
+        }
+        return remaining;
+    }
+
+    private long delayNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(timeControl.getDelayMillis());
+    }
+
+    private void startTurn(Piece.Color side) {
+        running = side;
+        turnStartNanos = System.nanoTime();
+        turn++;
+        scheduleDeadline(remainingNanos[side.ordinal()] + delayNanos());
+    }
+
+    // Charges the running side for its turn; a move made after the deadline but before it fired still loses
+    private void endTurn() {
+        if (running == null) {
+            return;
+        }
+        long remaining = remainingNanosNow(running, System.nanoTime());
+        if (remaining <= 0) {
+            flagFall();
+            return;
+        }
+        remainingNanos[running.ordinal()] = remaining;
+        running = null;
+        cancelDeadline();
+    }
+
+    private void scheduleDeadline(long delayNanos) {
+        long expectedTurn = turn;
+        deadline = scheduler.schedule(() -> onDeadline(expectedTurn), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelDeadline() {
+        if (deadline != null) {
+            deadline.cancel(false);
+            deadline = null;
+        }
+    }
+
+    // Runs on the scheduler when the running side's time should be up
+    private synchronized void onDeadline(long expectedTurn) {
+        if (expectedTurn != turn || running == null || flagged != null) {
+            return; // The turn ended, or the flag was already seen to fall
+        }
+        long remaining = remainingNanosNow(running, System.nanoTime());
+        if (remaining > 0) {
+            scheduleDeadline(remaining); // Woken early
+        } else {
+            flagFall();
+        }
+    }
+
+    // Stops the clock with the running side out of time and tells the listener, always on the scheduler thread
+    private void flagFall() {
+        Piece.Color loser = running;
+        remainingNanos[loser.ordinal()] = 0;
+        running = null;
+        flagged = loser;
+        cancelDeadline();
+        scheduler.execute(() -> flagFallListener.accept(loser));
+    }
+
+    private static ScheduledThreadPoolExecutor createSharedScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "chess-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
\ No newline at end of file
@@ -1,17 +1,27 @@
 package game;
 
 import model.Board;
+import model.Fen;
 import model.Move;
+import model.MoveList;
+import model.PackedMove;
 import model.Piece;
 import model.Player;
 import pieces.*;
 import rules.ChessMoveValidator;
+import rules.MoveGenerator;
 import rules.MoveValidator;
+import rules.PositionTable;
+import rules.SanNotation;
 
 import java.awt.Point;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Stack;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Game {
     private Board board;
@@ -19,27 +29,93 @@ public class Game {
     private Player blackPlayer;
     private Piece.Color currentPlayerTurn;
     private MoveValidator moveValidator;
+    private MoveGenerator moveGenerator;
+    // Legal moves of the side to move in the position with Zobrist key legalMovesKey.
+    // Nothing changes them but a move, so makeMove and undoLastMove clear legalMovesValid
+    // and repeated queries (SAN, results, highlights) reuse one generation.
+    private final MoveList legalMoves = new MoveList();
+    private long legalMovesKey;
+    private boolean legalMovesValid;
+    private boolean legalMovesInCheck;
     private Stack<Move> moveHistory;
-    private Move lastOpponentMove;
-
-    // Timer related fields
-    private long whiteTimeMillis;
-    private long blackTimeMillis;
-    private long lastMoveStartTime; // System.currentTimeMillis() when the last move was made
-    private final long defaultTimePerPlayerMillis = 10 * 60 * 1000; // 10 minutes per player
+    // SAN for each entry of moveHistory, formatted once when the move was made
+    private final List<String> sanHistory = new ArrayList<>();
+    private final List<String> sanHistoryView = Collections.unmodifiableList(sanHistory);
+    // How often each position (by Zobrist key) has occurred, for threefold repetition
+    private Map<Long, Integer> positionCounts;
+    // Legal-move counts by position, shared with other games and the engine
+    private final PositionTable positionTable;
+    // The position the game started from, in FEN
+    private final String startingFen;
+    // Whether moves and results are echoed to the console; a server hosting many games turns it off
+    private boolean consoleOutput = true;
+
+    // Runs for the side to move; its flag-fall deadline is the only timing work a game does
+    private ChessClock clock;
+    // Copy-on-write because a loss on time is announced from the clock's thread
+    private final List<GameListener> listeners = new CopyOnWriteArrayList<>();
 
     public Game() {
-        this.board = new Board();
+        this(PositionTable.getShared());
+    }
+
+    public Game(PositionTable positionTable) {
+        this(new Board(), Fen.STARTING_POSITION, positionTable);
+    }
+
+    private Game(Board board, String startingFen, PositionTable positionTable) {
+        this.positionTable = positionTable;
+        this.startingFen = startingFen;
+        this.board = board;
         this.whitePlayer = new Player(Piece.Color.WHITE);
         this.blackPlayer = new Player(Piece.Color.BLACK);
-        this.currentPlayerTurn = Piece.Color.WHITE;
+        this.currentPlayerTurn = board.getSideToMove();
         this.moveValidator = new ChessMoveValidator();
+        this.moveGenerator = new MoveGenerator(moveValidator);
         this.moveHistory = new Stack<>();
-        this.lastOpponentMove = null;
+        this.positionCounts = new HashMap<>();
+        positionCounts.put(board.getZobristKey(), 1);
+
+        this.clock = new ChessClock(TimeControl.DEFAULT, this::onFlagFall);
+        clock.start(currentPlayerTurn); // Start timer immediately
+    }
+
+    /**
+     * Starts a game from a position given in FEN (see {@link Fen}). There is
+     * no move history, so undo stops at this position and repetitions are
+     * counted from it.
+     *
+     * @param fen The starting position.
+     * @return A new game with the side to move's clock running.
+     * @throws IllegalArgumentException if the string is not valid FEN.
+     */
+    public static Game fromFen(String fen) {
+        return fromFen(fen, PositionTable.getShared());
+    }
+
+    public static Game fromFen(String fen, PositionTable positionTable) {
+        Board board = Fen.toBoard(fen);
+        return new Game(board, Fen.toFen(board), positionTable);
+    }
+
+    // Where the move history starts: Fen.STARTING_POSITION unless the game came from fromFen
+    public String getStartingFen() {
+        return startingFen;
+    }
+
+    // The current position in FEN, including the halfmove clock and move number
+    public String toFen() {
+        return Fen.toFen(board);
+    }
 
-        this.whiteTimeMillis = defaultTimePerPlayerMillis;
-        this.blackTimeMillis = defaultTimePerPlayerMillis;
-        this.lastMoveStartTime = System.currentTimeMillis(); // Start timer immediately
+    public void setConsoleOutput(boolean consoleOutput) {
+        this.consoleOutput = consoleOutput;
+    }
+
+    private void log(String message) {
+        if (consoleOutput) {
+            System.out.println(message);
+        }
     }
 
     public Board getBoard() {
@@ -51,60 +127,114 @@ public class Game {
     }
 
     public long getWhiteTimeMillis() {
-        return whiteTimeMillis;
+        return clock.getRemainingMillis(Piece.Color.WHITE);
     }
 
     public long getBlackTimeMillis() {
-        return blackTimeMillis;
+        return clock.getRemainingMillis(Piece.Color.BLACK);
+    }
+
+    public TimeControl getTimeControl() {
+        return clock.getTimeControl();
+    }
+
+    /**
+     * Replaces the clock with a fresh one for the given time control, both
+     * sides starting with its full time, and starts it for the side to move.
+     */
+    public void setTimeControl(TimeControl timeControl) {
+        clock.stop();
+        clock = new ChessClock(timeControl, this::onFlagFall);
+        clock.start(currentPlayerTurn);
+        fireClockTick();
     }
 
     public void startTimer() {
-        lastMoveStartTime = System.currentTimeMillis();
+        clock.start(currentPlayerTurn);
+        fireClockTick();
     }
 
+    // Also cancels the clock's pending deadline, so a game that is dropped should be stopped first
     public void stopTimer() {
-        long elapsedTime = System.currentTimeMillis() - lastMoveStartTime;
-        if (currentPlayerTurn == Piece.Color.WHITE) {
-            whiteTimeMillis -= elapsedTime;
-        } else {
-            blackTimeMillis -= elapsedTime;
+        clock.stop();
+        fireClockTick();
+    }
+
+    /**
+     * Registers a listener for moves, take-backs, checks, the end of the game
+     * and clock changes. See {@link GameListener} for which thread events
+     * arrive on.
+     */
+    public void addGameListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeGameListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Called on the clock's scheduler thread; the result is TIMEOUT from now on
+    private void onFlagFall(Piece.Color loser) {
+        log(loser == Piece.Color.WHITE ? "White ran out of time! Black wins!" : "Black ran out of time! White wins!");
+        fireClockTick();
+        for (GameListener listener : listeners) {
+            listener.gameOver(this, GameResult.TIMEOUT);
         }
-        lastMoveStartTime = 0; // Indicate timer is paused
     }
 
-    // This method needs to be called periodically (e.g., by a Swing Timer)
-    public void decrementTimer() {
-        if (lastMoveStartTime == 0) return; // Timer is paused
+    private void fireClockTick() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        long whiteMillis = clock.getRemainingMillis(Piece.Color.WHITE);
+        long blackMillis = clock.getRemainingMillis(Piece.Color.BLACK);
+        Piece.Color runningSide = clock.getRunningSide();
+        for (GameListener listener : listeners) {
+            listener.clockTick(this, whiteMillis, blackMillis, runningSide);
+        }
+    }
 
-        long currentTime = System.currentTimeMillis();
-        long elapsedTime = currentTime - lastMoveStartTime;
-        lastMoveStartTime = currentTime; // Reset for next decrement
+    // A check on the side to move, after a move or take-back
+    private void fireCheckIfAny() {
+        getCurrentLegalMoves(); // Brings legalMovesInCheck up to date
+        if (!legalMovesInCheck) {
+            return;
+        }
+        int kingSquare = board.getKingSquare(currentPlayerTurn);
+        for (GameListener listener : listeners) {
+            listener.check(this, currentPlayerTurn, kingSquare);
+        }
+    }
 
-        if (currentPlayerTurn == Piece.Color.WHITE) {
-            whiteTimeMillis -= elapsedTime;
-            if (whiteTimeMillis <= 0) {
-                whiteTimeMillis = 0;
-                // Handle game over due to timeout
-                System.out.println("White ran out of time! Black wins!");
-                // (You'd set a game over flag here)
-            }
-        } else {
-            blackTimeMillis -= elapsedTime;
-            if (blackTimeMillis <= 0) {
-                blackTimeMillis = 0;
-                // Handle game over due to timeout
-                System.out.println("Black ran out of time! White wins!");
-                // (You'd set a game over flag here)
-            }
+    // Every square a move changes: both ends, the rook's squares when castling and the pawn taken en passant
+    private static long changedSquares(Move move) {
+        Point start = move.getStart();
+        Point end = move.getEnd();
+        long squares = (1L << Board.toSquare(start)) | (1L << Board.toSquare(end));
+        if (move.isCastling()) {
+            boolean kingside = end.x > start.x;
+            squares |= (1L << Board.toSquare(kingside ? 7 : 0, start.y)) | (1L << Board.toSquare(kingside ? 5 : 3, start.y));
+        } else if (move.isEnPassant()) {
+            squares |= 1L << Board.toSquare(end.x, start.y);
         }
+        return squares;
     }
 
 
     public boolean makeMove(Point start, Point end, Piece promotedPieceType) {
+        if (clock.getFlagged() != null) {
+            log("Time is up. No more moves.");
+            return false;
+        }
+        // A draw by rule ends the game like mate does; a later capture or pawn move must not revive it
+        if (getGameResult() != GameResult.IN_PROGRESS) {
+            log("The game is over. No more moves.");
+            return false;
+        }
         Piece pieceToMove = board.getPiece(start);
 
         if (pieceToMove == null || pieceToMove.getColor() != currentPlayerTurn) {
-            System.out.println("Invalid selection or not your turn.");
+            log("Invalid selection or not your turn.");
             return false;
         }
 
@@ -117,7 +247,7 @@ public class Game {
             proposedMove = new Move(start, end, pieceToMove, board.getPiece(new Point(end.x, start.y)), true); // En passant
         } else if (pieceToMove instanceof Pawn && (end.y == 0 || end.y == 7)) { // Pawn reaches last rank
             if (promotedPieceType == null) { // If no promotion type is provided, it's an error for UI
-                System.out.println("Pawn promotion requires a selected piece type.");
+                log("Pawn promotion requires a selected piece type.");
                 return false;
             }
             proposedMove = new Move(start, end, pieceToMove, board.getPiece(end), promotedPieceType);
@@ -126,130 +256,163 @@ public class Game {
             proposedMove = new Move(start, end, pieceToMove, board.getPiece(end));
         }
 
-        stopTimer(); // Stop current player's timer before validation
+        // Legal exactly when the generator's pin- and check-aware list for this position has it;
+        // the same list then serves SAN disambiguation
+        int packedMove = PackedMove.fromMove(proposedMove, board);
+        MoveList legal = getCurrentLegalMoves();
+        if (legal.contains(packedMove)) {
+            String san = SanNotation.format(board, packedMove, legal);
 
-        if (moveValidator.isValidMove(board, proposedMove, lastOpponentMove)) {
-            // Execute the move on the board
-            executeMove(proposedMove);
+            // Execute the move on the board (this also updates hasMoved for King, Rook, Pawn)
+            board.makeMove(proposedMove);
 
-            // Update piece's state (e.g., hasMoved for King, Rook, Pawn)
-            if (pieceToMove instanceof Pawn) {
-                ((Pawn) pieceToMove).setHasMoved(true);
-            } else if (pieceToMove instanceof King) {
-                ((King) pieceToMove).setHasMoved(true);
-            } else if (pieceToMove instanceof Rook) {
-                ((Rook) pieceToMove).setHasMoved(true);
-            }
-
-            // Record the move in history for undo and for lastOpponentMove
+            // Record the move in history for undo
             moveHistory.push(proposedMove);
-            lastOpponentMove = proposedMove;
+            positionCounts.merge(board.getZobristKey(), 1, Integer::sum);
+            legalMovesValid = false;
 
-            // Switch turns and start next player's timer
+            // Switch turns; the clock charges the mover, adds any increment and starts the opponent
+            clock.press(currentPlayerTurn);
             switchTurns();
-            startTimer();
 
-            System.out.println("Move successful: " + proposedMove);
+            // The check suffix needs the position the move leads to
+            MoveList replies = getCurrentLegalMoves();
+            sanHistory.add(san + SanNotation.suffix(legalMovesInCheck, !replies.isEmpty()));
+            GameResult result = getGameResult();
+            if (result != GameResult.IN_PROGRESS) {
+                clock.stop(); // No one is on move once the game has ended
+            }
+            boolean ended = result != GameResult.IN_PROGRESS;
+
+            log("Move successful: " + proposedMove);
+            if (ended) {
+                logResult(result);
+            }
+            if (!listeners.isEmpty()) {
+                MoveEvent event = new MoveEvent(proposedMove, sanHistory.get(sanHistory.size() - 1),
+                        sanHistory.size(), changedSquares(proposedMove));
+                for (GameListener listener : listeners) {
+                    listener.moveMade(this, event);
+                }
+                fireCheckIfAny();
+                fireClockTick();
+                // A flag that fell during the move is announced by the clock instead
+                if (ended && result != GameResult.TIMEOUT) {
+                    for (GameListener listener : listeners) {
+                        listener.gameOver(this, result);
+                    }
+                }
+            }
             // board.printBoard(); // For console feedback
 
             return true;
         } else {
-            // Restart timer for the current player if move was invalid
-            startTimer();
-            System.out.println("Invalid move according to chess rules.");
+            log("Invalid move according to chess rules.");
             return false;
         }
     }
 
-    private void executeMove(Move move) {
-        Piece pieceToMove = move.getPieceMoved();
-        Point start = move.getStart();
-        Point end = move.getEnd();
+    private void switchTurns() {
+        currentPlayerTurn = (currentPlayerTurn == Piece.Color.WHITE) ? Piece.Color.BLACK : Piece.Color.WHITE;
+    }
 
-        // Remove piece from start position
-        board.setPiece(start, null);
+    // Public method to check if a King of a specific color is in check
+    public boolean isKingInCheck(Piece.Color color) {
+        return moveValidator.isKingInCheck(board, color);
+    }
 
-        // Handle special captures (en passant)
-        if (move.isEnPassant()) {
-            // The captured pawn is on the start.y row, but end.x column
-            Point capturedPawnPos = new Point(end.x, start.y);
-            board.setPiece(capturedPawnPos, null); // Remove captured pawn
-        }
+    // Has no side effects; the end of the game is logged and the clock stopped when the move that ends it is made
+    public boolean isGameOver() {
+        return getGameResult() != GameResult.IN_PROGRESS;
+    }
 
-        // Handle castling (move the rook)
-        if (move.isCastling()) {
-            int kingRow = pieceToMove.getColor() == Piece.Color.WHITE ? 7 : 0;
-            Rook rookToMove;
-            Point rookStart;
-            Point rookEnd;
-
-            if (end.x == 6) { // King-side castling
-                rookStart = new Point(7, kingRow);
-                rookEnd = new Point(5, kingRow);
-            } else { // Queen-side castling
-                rookStart = new Point(0, kingRow);
-                rookEnd = new Point(3, kingRow);
-            }
-            rookToMove = (Rook) board.getPiece(rookStart);
-            if (rookToMove != null) {
-                board.setPiece(rookEnd, rookToMove);
-                board.setPiece(rookStart, null);
-                rookToMove.setPosition(rookEnd);
-                rookToMove.setHasMoved(true); // Rook also moves in castling
-            }
+    private void logResult(GameResult result) {
+        switch (result) {
+            case CHECKMATE:
+                log("CHECKMATE! " + (currentPlayerTurn == Piece.Color.WHITE ? "Black" : "White") + " wins!");
+                break;
+            case STALEMATE:
+                log("STALEMATE! It's a draw!");
+                break;
+            case FIFTY_MOVE_RULE:
+                log("FIFTY-MOVE RULE! It's a draw!");
+                break;
+            case THREEFOLD_REPETITION:
+                log("THREEFOLD REPETITION! It's a draw!");
+                break;
+            default:
+                break; // A loss on time is logged by onFlagFall
         }
+    }
 
-        // Handle pawn promotion
-        if (move.isPromotion()) {
-            Piece promotedPiece = null;
-            Piece.Color color = pieceToMove.getColor();
-            // Create the new promoted piece based on the type chosen by the player
-            // Note: The promotedPieceType in the Move object is a dummy Piece just for its type.
-            // We create a new instance with the correct color and position here.
-            if (move.getPromotedPieceType() instanceof Queen) {
-                promotedPiece = new pieces.Queen(color, end);
-            } else if (move.getPromotedPieceType() instanceof Rook) {
-                promotedPiece = new pieces.Rook(color, end);
-            } else if (move.getPromotedPieceType() instanceof Bishop) {
-                promotedPiece = new pieces.Bishop(color, end);
-            } else if (move.getPromotedPieceType() instanceof Knight) {
-                promotedPiece = new pieces.Knight(color, end);
-            }
-            board.setPiece(end, promotedPiece);
+    /**
+     * Works out whether the game has ended and how. The draw rules read the
+     * board's halfmove clock and the position counts kept by makeMove and
+     * undoLastMove, so the move history is never replayed. Only the side to
+     * move's clock runs, so on TIMEOUT it is that side that lost.
+     * @return The current result, IN_PROGRESS if the game goes on.
+     */
+    public GameResult getGameResult() {
+        if (clock.getFlagged() != null) {
+            return GameResult.TIMEOUT;
+        }
+        // Checkmate and stalemate depend only on the position: use this game's cached moves if
+        // they are current, otherwise let transpositions reuse the shared table's answer
+        long key = board.getZobristKey();
+        long entry = isLegalMoveCacheCurrent() ? PositionTable.MISS : positionTable.probe(key);
+        int legalMoveCount = PositionTable.legalMoveCount(entry);
+        boolean kingInCheck;
+        if (legalMoveCount != PositionTable.UNKNOWN_MOVE_COUNT) {
+            kingInCheck = PositionTable.isInCheck(entry);
+        } else if (isLegalMoveCacheCurrent()) {
+            legalMoveCount = legalMoves.size();
+            kingInCheck = legalMovesInCheck;
         } else {
-            // Place the moved piece at the end position for regular moves
-            board.setPiece(end, pieceToMove);
+            legalMoveCount = getCurrentLegalMoves().size();
+            kingInCheck = legalMovesInCheck;
+            positionTable.storeLegalMoveCount(key, legalMoveCount, kingInCheck);
         }
-    }
-
 
-    private void switchTurns() {
-        currentPlayerTurn = (currentPlayerTurn == Piece.Color.WHITE) ? Piece.Color.BLACK : Piece.Color.WHITE;
+        if (legalMoveCount == 0) {
+            return kingInCheck ? GameResult.CHECKMATE : GameResult.STALEMATE;
+        }
+        if (board.getHalfmoveClock() >= 100) {
+            return GameResult.FIFTY_MOVE_RULE; // 50 moves by each side without a capture or pawn move
+        }
+        if (positionCounts.getOrDefault(board.getZobristKey(), 0) >= 3) {
+            return GameResult.THREEFOLD_REPETITION;
+        }
+        return GameResult.IN_PROGRESS;
     }
 
-    // Public method to check if a King of a specific color is in check
-    public boolean isKingInCheck(Piece.Color color) {
-        return moveValidator.isKingInCheck(board, color);
+    // Legal moves of the side to move, generated at most once per position
+    private MoveList getCurrentLegalMoves() {
+        if (!isLegalMoveCacheCurrent()) {
+            legalMoves.clear();
+            moveGenerator.generateLegalMoves(board, legalMoves);
+            legalMovesInCheck = moveValidator.isKingInCheck(board, currentPlayerTurn);
+            legalMovesKey = board.getZobristKey();
+            legalMovesValid = true;
+        }
+        return legalMoves;
     }
 
-    public boolean isGameOver() {
-        // First check if current player is in check
-        boolean kingInCheck = moveValidator.isKingInCheck(board, currentPlayerTurn);
-
-        // Get all legal moves for the current player
-        List<Move> legalMoves = getAllLegalMovesForPlayer(currentPlayerTurn);
+    // The key check also catches the board being changed behind the game's back
+    private boolean isLegalMoveCacheCurrent() {
+        return legalMovesValid && legalMovesKey == board.getZobristKey();
+    }
 
-        if (kingInCheck && legalMoves.isEmpty()) {
-            System.out.println("CHECKMATE! " + (currentPlayerTurn == Piece.Color.WHITE ? "Black" : "White") + " wins!");
-            stopTimer(); // Stop timers
-            return true;
-        } else if (!kingInCheck && legalMoves.isEmpty()) {
-            System.out.println("STALEMATE! It's a draw!");
-            stopTimer(); // Stop timers
-            return true;
+    /**
+     * Appends the legal moves of the side to move, as packed moves (see
+     * {@link PackedMove}), to the given list. They come from the same per-position
+     * cache as {@link #getLegalMovesForPiece}.
+     * @param moves The list to append to.
+     */
+    public void getLegalMoves(MoveList moves) {
+        MoveList legal = getCurrentLegalMoves();
+        for (int i = 0; i < legal.size(); i++) {
+            moves.add(legal.get(i));
         }
-        // Add more draw conditions later (50-move rule, three-fold repetition)
-        return false;
     }
 
     /**
@@ -258,28 +421,6 @@ public class Game {
      * @param start The starting position of the piece.
      * @return A List of Point objects representing legal destination squares.
      */
-    private List<Move> getAllLegalMovesForPlayer(Piece.Color color) {
-        List<Move> allMoves = new ArrayList<>();
-        for (int startX = 0; startX < Board.SIZE; startX++) {
-            for (int startY = 0; startY < Board.SIZE; startY++) {
-                Point start = new Point(startX, startY);
-                Piece piece = board.getPiece(start);
-                if (piece != null && piece.getColor() == color) {
-                    for (int endX = 0; endX < Board.SIZE; endX++) {
-                        for (int endY = 0; endY < Board.SIZE; endY++) {
-                            Point end = new Point(endX, endY);
-                            Move move = new Move(start, end, piece, board.getPiece(end));
-                            if (moveValidator.isValidMove(board, move, lastOpponentMove)) {
-                                allMoves.add(move);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return allMoves;
-    }
-
     public List<Point> getLegalMovesForPiece(Point start) {
         List<Point> possibleEnds = new ArrayList<>();
         Piece piece = board.getPiece(start);
@@ -288,174 +429,66 @@ public class Game {
             return possibleEnds; // No piece or not current player's piece
         }
 
-        for (int x = 0; x < Board.SIZE; x++) {
-            for (int y = 0; y < Board.SIZE; y++) {
-                Point end = new Point(x, y);
-                // Temporarily create a dummy move. The isValidMove method will validate.
-                // The actual move object for special moves would be created inside makeMove.
-                Move possibleMove = new Move(start, end, piece, board.getPiece(end)); // Dummy move
-                if (moveValidator.isValidMove(board, possibleMove, lastOpponentMove)) {
-                    possibleEnds.add(end);
-                }
+        int from = Board.toSquare(start);
+        MoveList moves = getCurrentLegalMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (PackedMove.from(move) != from) {
+                continue;
+            }
+            Point end = Board.pointOf(PackedMove.to(move));
+            // The four promotion choices share one destination square
+            if (!possibleEnds.contains(end)) {
+                possibleEnds.add(end);
             }
         }
         return possibleEnds;
     }
 
     /**
-     * Returns the formatted move history for display in the UI.
-     * @return A List of String, each string representing a move.
+     * Returns the moves played so far in Standard Algebraic Notation, one
+     * entry per move. Each entry is recorded when its move is made and removed
+     * when it is undone, so the list only ever grows or shrinks at the end and
+     * a caller can render just the entries it has not seen yet.
+     * @return A read-only view that tracks the game as it goes on.
      */
     public List<String> getFormattedMoveHistory() {
-        List<String> formattedMoves = new ArrayList<>();
-        for (Move move : moveHistory) {
-            Piece piece = move.getPieceMoved();
-            String notation = "";
-            
-            // Handle castling first
-            if (move.isCastling()) {
-                notation = move.getEnd().x == 6 ? "O-O" : "O-O-O";
-            } else {
-                // Add piece symbol for non-pawns (N for knight, B for bishop, etc.)
-                if (!(piece instanceof Pawn)) {
-                    notation += piece.getSymbol().toUpperCase();
-                }
-                
-                // Add capture symbol
-                if (move.getPieceCaptured() != null || move.isEnPassant()) {
-                    // For pawns, add the file they moved from when capturing
-                    if (piece instanceof Pawn) {
-                        notation += (char)('a' + move.getStart().x);
-                    }
-                    notation += "x";
-                }
-                
-                // Add destination square
-                notation += convertToAlgebraic(move.getEnd());
-                
-                // Add en passant notation
-                if (move.isEnPassant()) {
-                    notation += " e.p.";
-                }
-                
-                // Add promotion notation
-                if (move.isPromotion()) {
-                    notation += "=" + move.getPromotedPieceType().getSymbol().toUpperCase();
-                }
-            }
-            
-            // Add check or checkmate symbol
-            if (isKingInCheck(getCurrentPlayerTurn())) {
-                boolean isCheckmate = getAllLegalMovesForPlayer(getCurrentPlayerTurn()).isEmpty();
-                notation += isCheckmate ? "#" : "+";
-            }
-            
-            formattedMoves.add(notation);
-        }
-        return formattedMoves;
-    }
-    private String convertToAlgebraic(Point p) {
-        return "" + (char)('a' + p.x) + (8 - p.y);
+        return sanHistoryView;
     }
+
     // Optional: Undo last move (basic implementation)
     public void undoLastMove() {
         if (!moveHistory.isEmpty()) {
-            stopTimer(); // Stop current player's timer before undoing
-
             Move lastMove = moveHistory.pop();
-            // Get the piece that was moved (it's the original piece object)
-            Piece movedPiece = lastMove.getPieceMoved();
-
-            // Revert piece's hasMoved state if it was their first move
-            if (movedPiece instanceof Pawn) {
-                // If it was the first move (two-square move), then set hasMoved to false
-                int startRow = (movedPiece.getColor() == Piece.Color.WHITE) ? 6 : 1;
-                if (lastMove.getStart().y == startRow &&
-                    Math.abs(lastMove.getStart().y - lastMove.getEnd().y) == 2) {
-                    ((Pawn) movedPiece).setHasMoved(false);
-                }
-            } else if (movedPiece instanceof King) {
-                 // For King, if it was its first move during castling
-                if (lastMove.isCastling()) {
-                    ((King) movedPiece).setHasMoved(false);
-                }
-            } else if (movedPiece instanceof Rook) {
-                // For Rook, if it was moved during castling
-                if (lastMove.isCastling()) {
-                    ((Rook) movedPiece).setHasMoved(false);
-                }
-            }
-
-            // Put the moved piece back to its start position
-            board.setPiece(lastMove.getStart(), movedPiece);
-            movedPiece.setPosition(lastMove.getStart());
-
-            // If a piece was captured, put it back
-            if (lastMove.getPieceCaptured() != null) {
-                board.setPiece(lastMove.getEnd(), lastMove.getPieceCaptured());
-                lastMove.getPieceCaptured().setPosition(lastMove.getEnd());
-            } else {
-                // If no piece was captured, the end square becomes empty (unless en passant)
-                board.setPiece(lastMove.getEnd(), null);
-            }
-
-            // Revert en passant capture
-            if (lastMove.isEnPassant()) {
-                Point capturedPawnPos = new Point(lastMove.getEnd().x, lastMove.getStart().y);
-                board.setPiece(capturedPawnPos, lastMove.getPieceCaptured());
-                lastMove.getPieceCaptured().setPosition(capturedPawnPos);
-                board.setPiece(lastMove.getEnd(), null);
-            }
+            int ply = sanHistory.size();
+            String san = sanHistory.remove(ply - 1);
 
-            // Revert castling (move the rook back)
-            if (lastMove.isCastling()) {
-                int kingRow = movedPiece.getColor() == Piece.Color.WHITE ? 7 : 0;
-                Point rookOriginalPos;
-                Point rookMovedPos;
-
-                if (lastMove.getEnd().x == 6) { // King-side castling
-                    rookOriginalPos = new Point(7, kingRow);
-                    rookMovedPos = new Point(5, kingRow);
-                } else { // Queen-side castling
-                    rookOriginalPos = new Point(0, kingRow);
-                    rookMovedPos = new Point(3, kingRow);
-                }
-                Rook movedRook = (Rook) board.getPiece(rookMovedPos);
-                if (movedRook != null) {
-                    board.setPiece(rookOriginalPos, movedRook);
-                    board.setPiece(rookMovedPos, null);
-                    movedRook.setPosition(rookOriginalPos);
-                    movedRook.setHasMoved(false); // Reset rook's hasMoved state
-                }
-            }
-
-            // Revert pawn promotion
-            if (lastMove.isPromotion()) {
-                // The promoted piece was at lastMove.getEnd()
-                // It was replaced by the original pawn at lastMove.getStart()
-                // Now, if there was a captured piece, it's already back.
-                // Otherwise, the end square should be empty.
-                // The movedPiece (pawn) has already been put back at start.
-                // So, just clear the end square if nothing was captured
-                if (lastMove.getPieceCaptured() == null) {
-                    board.setPiece(lastMove.getEnd(), null);
-                }
+            // Forget the position we are leaving before the board goes back
+            long positionKey = board.getZobristKey();
+            if (positionCounts.merge(positionKey, -1, Integer::sum) <= 0) {
+                positionCounts.remove(positionKey);
             }
 
-            // Update lastOpponentMove (if there are previous moves)
-            if (!moveHistory.isEmpty()) {
-                lastOpponentMove = moveHistory.peek();
-            } else {
-                lastOpponentMove = null;
-            }
+            // The board keeps its own undo record for every move made through it,
+            // covering captures, en passant, castling, promotion and hasMoved flags
+            board.unmakeMove();
+            legalMovesValid = false;
 
             switchTurns(); // Switch turn back
-            startTimer(); // Start the timer for the player whose turn it just became
+            clock.start(currentPlayerTurn); // Charges the player who was on move; no increment for a take-back
 
-            System.out.println("Undoing move: " + lastMove);
+            log("Undoing move: " + lastMove);
             // board.printBoard();
+            if (!listeners.isEmpty()) {
+                MoveEvent event = new MoveEvent(lastMove, san, ply, changedSquares(lastMove));
+                for (GameListener listener : listeners) {
+                    listener.moveUndone(this, event);
+                }
+                fireCheckIfAny();
+                fireClockTick();
+            }
         } else {
-            System.out.println("No moves to undo.");
+            log("No moves to undo.");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package game;
+
+import model.Piece;
+
+/**
+ * Receives a game's changes as they happen, so views, network sessions and
+ * logs can update just what changed instead of re-reading the whole game
+ * after every action. Every method has an empty default; implement the ones
+ * you need.
+ *
+ * <p>Events are delivered on the thread that called into the game, in the
+ * order the changes happened. The exception is a loss on time, which is
+ * noticed by the clock: that {@link #gameOver} call arrives on the clock's
+ * scheduler thread, and a listener that is not thread-safe should hand it
+ * over to the thread that owns the game.
+ */
+public interface GameListener {
+    /** A move was played. Sent after the board, history and clocks are updated. */
+    default void moveMade(Game game, MoveEvent event) {
+    }
+
+    /** A move was taken back. The event describes the move that is gone. */
+    default void moveUndone(Game game, MoveEvent event) {
+    }
+
+    /**
+     * The side to move is in check after a move or take-back.
+     *
+     * @param kingSquare The checked king's square (see {@link model.Board#toSquare}).
+     */
+    default void check(Game game, Piece.Color side, int kingSquare) {
+    }
+
+    /** The game ended; sent once per ending. An undo that reopens the game allows another. */
+    default void gameOver(Game game, GameResult result) {
+    }
+
+    /**
+     * The clocks were set: after each move and take-back, and whenever they
+     * are started, stopped or given a new time control. Between ticks only the
+     * running side's time changes, falling in real time, so a display can
+     * count down on its own without asking the game.
+     *
+     * @param runningSide The side whose clock runs, or null if both are stopped.
+     */
+    default void clockTick(Game game, long whiteMillis, long blackMillis, Piece.Color runningSide) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package game;
+
+// How the game stands; everything except IN_PROGRESS ends it. On CHECKMATE and TIMEOUT the side to move has lost
+public enum GameResult {
+    IN_PROGRESS,
+    CHECKMATE,
+    STALEMATE,
+    FIFTY_MOVE_RULE,
+    THREEFOLD_REPETITION,
+    TIMEOUT
+}
\ No newline at end of file
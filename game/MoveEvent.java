@@ -0,0 +1,47 @@
+package game;
+
+import model.Move;
+import model.Piece;
+
+/**
+ * One move made or taken back, with everything a view needs to update
+ * without re-reading the whole game: the move, its SAN as it appears in the
+ * history, its place in the history and exactly which squares changed.
+ */
+public class MoveEvent {
+    private final Move move;
+    private final String san;
+    private final int ply;
+    private final long changedSquares;
+
+    public MoveEvent(Move move, String san, int ply, long changedSquares) {
+        this.move = move;
+        this.san = san;
+        this.ply = ply;
+        this.changedSquares = changedSquares;
+    }
+
+    public Move getMove() {
+        return move;
+    }
+
+    public Piece.Color getMover() {
+        return move.getPieceMoved().getColor();
+    }
+
+    // As in Game.getFormattedMoveHistory(), with any check or mate suffix
+    public String getSan() {
+        return san;
+    }
+
+    // 1 for the first move of the game; the move's index in the history is getPly() - 1
+    public int getPly() {
+        return ply;
+    }
+
+    // Bitboard (bit = Board.toSquare) of every square whose contents changed, including
+    // the rook's squares when castling and the captured pawn's square for en passant
+    public long getChangedSquares() {
+        return changedSquares;
+    }
+}
\ No newline at end of file
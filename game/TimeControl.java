@@ -0,0 +1,57 @@
+package game;
+
+/**
+ * How much time each side gets: a starting allowance plus, per move, either
+ * an increment (added to a player's clock after each of their moves) or a
+ * delay (the first part of every turn is not taken off the clock). Both may
+ * be combined, though tournaments use one or the other.
+ */
+public final class TimeControl {
+    /** Ten minutes each, no increment or delay. */
+    public static final TimeControl DEFAULT = new TimeControl(10 * 60 * 1000, 0, 0);
+
+    private final long initialMillis;
+    private final long incrementMillis;
+    private final long delayMillis;
+
+    /**
+     * @param initialMillis Each side's starting time; must be positive.
+     * @param incrementMillis Time added after each move; zero for none.
+     * @param delayMillis Time at the start of each turn that is not charged; zero for none.
+     * @throws IllegalArgumentException if a value is out of range.
+     */
+    public TimeControl(long initialMillis, long incrementMillis, long delayMillis) {
+        if (initialMillis <= 0 || incrementMillis < 0 || delayMillis < 0) {
+            throw new IllegalArgumentException("Invalid time control: " + initialMillis + "ms, +"
+                    + incrementMillis + "ms, delay " + delayMillis + "ms");
+        }
+        this.initialMillis = initialMillis;
+        this.incrementMillis = incrementMillis;
+        this.delayMillis = delayMillis;
+    }
+
+    public static TimeControl withIncrement(long initialMillis, long incrementMillis) {
+        return new TimeControl(initialMillis, incrementMillis, 0);
+    }
+
+    public static TimeControl withDelay(long initialMillis, long delayMillis) {
+        return new TimeControl(initialMillis, 0, delayMillis);
+    }
+
+    public long getInitialMillis() {
+        return initialMillis;
+    }
+
+    public long getIncrementMillis() {
+        return incrementMillis;
+    }
+
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+
+    @Override
+    public String toString() {
+        return initialMillis + "ms+" + incrementMillis + "ms" + (delayMillis > 0 ? " delay " + delayMillis + "ms" : "");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,285 @@
+package model;
+
+/**
+ * Attack sets as bitboards, using the same square indexing as Board
+ * (index = y * 8 + x, so a8 is 0 and h1 is 63).
+ * Every lookup is a table read built once at class load. Knight, king and pawn
+ * attacks are indexed by square. Rook and bishop attacks use magic bitboards:
+ * the blockers on a slider's rays are multiplied by a per-square magic number
+ * whose top bits then index a table holding the attack set for exactly those
+ * blockers.
+ */
+public final class Attacks {
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64]; // [color ordinal][square]
+
+    private static final int[][] KNIGHT_OFFSETS = {
+        {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}
+    };
+    private static final int[][] KING_OFFSETS = {
+        {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}
+    };
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    // Magic numbers per square, found once by a random search and checked for collisions at class load
+    private static final long[] ROOK_MAGICS = {
+        0x0080008420144000L, 0x0140001000402000L, 0x8100200100081040L, 0x0580100181040800L,
+        0x0480040002480180L, 0x020002001004C108L, 0x06002600180104ACL, 0x0A00010200804024L,
+        0x1102800320814002L, 0xC000808040002000L, 0x0202802000821000L, 0x4210800800801000L,
+        0x8008808044004800L, 0x0006002418100200L, 0x0A00800200010080L, 0x0202000208804114L,
+        0x0280044002200041L, 0x3010004020004008L, 0x0010002008040022L, 0x8000210008100102L,
+        0x60A2020004110820L, 0x0222008080040002L, 0x00C0840002085110L, 0x02004A0000810454L,
+        0x0080401080008020L, 0x0040200040100048L, 0x0006041200208040L, 0x2010100100210008L,
+        0x5090080080800400L, 0x0022002200042950L, 0x011010040002E108L, 0x0000240200009041L,
+        0x0010400020800080L, 0x0040401000402000L, 0x0200200080801000L, 0x4140080080801003L,
+        0x0000800400800800L, 0x0800040080800200L, 0x1008080284002110L, 0x00A001008A001444L,
+        0x3040002040908000L, 0x1000422010024000L, 0x0040402001010010L, 0x8000100008008080L,
+        0x0084008008028004L, 0x0002000204008080L, 0x0000088210040001L, 0x0280C12080520004L,
+        0x028700800C402B00L, 0x0180200040008080L, 0x80A0008020100080L, 0x0001012010008900L,
+        0x4000040108008180L, 0x000C000402008080L, 0x004B0002002C0900L, 0x0020D42040811200L,
+        0x8844520121004082L, 0x1109150082204001L, 0x0302000820408012L, 0x2081002208041001L,
+        0x0002000804201002L, 0x5101000A28040029L, 0x0100080112489004L, 0x02000E4400288102L
+    };
+    private static final long[] BISHOP_MAGICS = {
+        0x4014281015002108L, 0x0060020882029000L, 0x1104440082102120L, 0x4004410020042802L,
+        0x0011104020140040L, 0x0006074460005020L, 0x48208E0820040201L, 0x0202050401042240L,
+        0x400C401014208AA0L, 0x01C020064A424100L, 0x0012304408424000L, 0x21008808510C0004L,
+        0x0020141420000024L, 0x0004009004202009L, 0x4002008410080450L, 0x2000088280B82000L,
+        0x4040002410828602L, 0x08448030810A1410L, 0x1010032104008110L, 0x0850810802084244L,
+        0x0804000202112040L, 0x4901008610009420L, 0x31A0402411082800L, 0x8402000107620200L,
+        0x2210311041126208L, 0x0295218018020400L, 0x2092010408104400L, 0x0004040000401080L,
+        0x0020404004010041L, 0x80448A0109080618L, 0x008084110A0A0200L, 0x204C00C000A70440L,
+        0x3010106441114400L, 0x0C94115400181000L, 0x1821403000020400L, 0x2000020082480080L,
+        0x2080408020020200L, 0x0020080040068040L, 0x20089D8888190802L, 0x000F820044408408L,
+        0x2084022006089000L, 0x22510101A0401020L, 0x40000A0802009408L, 0x140483C010420200L,
+        0x0449200208811408L, 0x0002220042000100L, 0x00281000D0800201L, 0x044200A519010200L,
+        0x0300421050080002L, 0x00C0540401080004L, 0x4801010088040034L, 0x8400000210540051L,
+        0x400400404822002CL, 0x2080070448020000L, 0x1B2082100A00A000L, 0x4002021802108000L,
+        0xC000248800901000L, 0x0000024100B01100L, 0x1902103044022100L, 0x0000004404228810L,
+        0x0101000008210100L, 0x0025000820089082L, 0x0008091010008120L, 0x9120024202040010L
+    };
+
+    // Per square: the squares whose blockers matter (the rays without their edge squares),
+    // 64 minus the number of those squares, and the attack sets indexed by
+    // ((occupied & mask) * magic) >>> shift
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLES = new long[64][];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLES = new long[64][];
+
+    // For two squares on a common rank, file or diagonal: the squares strictly
+    // between them, and the whole line through both from edge to edge. Empty otherwise.
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int x = Board.fileOf(square);
+            int y = Board.rankOf(square);
+            KNIGHT_ATTACKS[square] = stepAttacks(x, y, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = stepAttacks(x, y, KING_OFFSETS);
+            // White pawns move towards y = 0, Black pawns towards y = 7
+            PAWN_ATTACKS[Piece.Color.WHITE.ordinal()][square] = stepAttacks(x, y, new int[][] {{-1, -1}, {1, -1}});
+            PAWN_ATTACKS[Piece.Color.BLACK.ordinal()][square] = stepAttacks(x, y, new int[][] {{-1, 1}, {1, 1}});
+        }
+
+        for (int square = 0; square < 64; square++) {
+            ROOK_MASKS[square] = relevantBlockers(square, ROOK_DIRECTIONS);
+            ROOK_SHIFTS[square] = 64 - Long.bitCount(ROOK_MASKS[square]);
+            ROOK_TABLES[square] = buildTable(square, ROOK_DIRECTIONS, ROOK_MASKS[square], ROOK_MAGICS[square]);
+            BISHOP_MASKS[square] = relevantBlockers(square, BISHOP_DIRECTIONS);
+            BISHOP_SHIFTS[square] = 64 - Long.bitCount(BISHOP_MASKS[square]);
+            BISHOP_TABLES[square] = buildTable(square, BISHOP_DIRECTIONS, BISHOP_MASKS[square], BISHOP_MAGICS[square]);
+        }
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) {
+                    continue;
+                }
+                long bits = (1L << a) | (1L << b);
+                if ((rookAttacks(a, 0L) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = rookAttacks(a, 1L << b) & rookAttacks(b, 1L << a);
+                    LINE[a][b] = (rookAttacks(a, 0L) & rookAttacks(b, 0L)) | bits;
+                } else if ((bishopAttacks(a, 0L) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = bishopAttacks(a, 1L << b) & bishopAttacks(b, 1L << a);
+                    LINE[a][b] = (bishopAttacks(a, 0L) & bishopAttacks(b, 0L)) | bits;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    // Squares a pawn of the given color standing on 'square' attacks
+    public static long pawnAttacks(Piece.Color color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_TABLES[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_TABLES[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    // Squares strictly between two squares on a common line, or 0 if they are not aligned
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    // The full rank, file or diagonal through both squares, or 0 if they are not aligned
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * Returns every piece of the given color that attacks a square, with
+     * sliders blocked by the given occupancy.
+     *
+     * @param position The position whose pieces attack.
+     * @param square The square index to test.
+     * @param attackerColor The color of the attacking side.
+     * @param occupied The squares that block sliding pieces.
+     * @return A bitboard of the attacking pieces.
+     */
+    public static long attackersTo(PositionView position, int square, Piece.Color attackerColor, long occupied) {
+        Piece.Color defenderColor = attackerColor == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE;
+        long queens = position.getBitboard(attackerColor, Piece.Type.QUEEN);
+        return (KNIGHT_ATTACKS[square] & position.getBitboard(attackerColor, Piece.Type.KNIGHT))
+                | (KING_ATTACKS[square] & position.getBitboard(attackerColor, Piece.Type.KING))
+                | (pawnAttacks(defenderColor, square) & position.getBitboard(attackerColor, Piece.Type.PAWN))
+                | (rookAttacks(square, occupied) & (position.getBitboard(attackerColor, Piece.Type.ROOK) | queens))
+                | (bishopAttacks(square, occupied) & (position.getBitboard(attackerColor, Piece.Type.BISHOP) | queens));
+    }
+
+    /**
+     * Checks whether any piece of the given color attacks a square.
+     * Looks outward from the square with the knight, king and pawn tables and the
+     * sliding rays, so the cost does not depend on how many pieces are on the board.
+     * Sliders are blocked by the given occupancy and attackers on excluded squares
+     * are ignored, which lets callers ask about the position after a move
+     * (a piece gone from its start square, a captured piece removed) without playing it.
+     *
+     * @param position The position whose pieces attack.
+     * @param square The square index to test.
+     * @param attackerColor The color of the attacking side.
+     * @param occupied The squares that block sliding pieces.
+     * @param excluded Squares whose pieces are treated as already captured.
+     * @return true if at least one piece of attackerColor attacks the square.
+     */
+    public static boolean isSquareAttacked(PositionView position, int square, Piece.Color attackerColor,
+                                           long occupied, long excluded) {
+        long attackers = ~excluded;
+        if ((KNIGHT_ATTACKS[square] & position.getBitboard(attackerColor, Piece.Type.KNIGHT) & attackers) != 0) {
+            return true;
+        }
+        if ((KING_ATTACKS[square] & position.getBitboard(attackerColor, Piece.Type.KING) & attackers) != 0) {
+            return true;
+        }
+        // A pawn attacks this square if it stands where a defending pawn on this square would attack
+        Piece.Color defenderColor = attackerColor == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE;
+        if ((pawnAttacks(defenderColor, square) & position.getBitboard(attackerColor, Piece.Type.PAWN) & attackers) != 0) {
+            return true;
+        }
+        long queens = position.getBitboard(attackerColor, Piece.Type.QUEEN);
+        long straightSliders = (position.getBitboard(attackerColor, Piece.Type.ROOK) | queens) & attackers;
+        if (straightSliders != 0 && (rookAttacks(square, occupied) & straightSliders) != 0) {
+            return true;
+        }
+        long diagonalSliders = (position.getBitboard(attackerColor, Piece.Type.BISHOP) | queens) & attackers;
+        return diagonalSliders != 0 && (bishopAttacks(square, occupied) & diagonalSliders) != 0;
+    }
+
+    /**
+     * Fills one square's lookup table by walking the rays for every
+     * arrangement of blockers on the mask. Two arrangements with different
+     * attack sets landing on the same slot would mean a bad magic number.
+     */
+    private static long[] buildTable(int square, int[][] directions, long mask, long magic) {
+        int bits = Long.bitCount(mask);
+        long[] table = new long[1 << bits];
+        boolean[] filled = new boolean[table.length];
+        long blockers = 0L;
+        do {
+            int index = (int) ((blockers * magic) >>> (64 - bits));
+            long attacks = slidingAttacks(square, blockers, directions);
+            if (filled[index] && table[index] != attacks) {
+                throw new IllegalStateException("Magic number collision on square " + square);
+            }
+            table[index] = attacks;
+            filled[index] = true;
+            blockers = (blockers - mask) & mask; // next subset of the mask (carry-rippler)
+        } while (blockers != 0);
+        return table;
+    }
+
+    // A blocker on the last square of a ray cannot hide anything behind it, so edge squares are left out
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0L;
+        int startX = Board.fileOf(square);
+        int startY = Board.rankOf(square);
+        for (int[] direction : directions) {
+            int x = startX + direction[0];
+            int y = startY + direction[1];
+            while (x + direction[0] >= 0 && x + direction[0] < Board.SIZE
+                    && y + direction[1] >= 0 && y + direction[1] < Board.SIZE) {
+                mask |= 1L << Board.toSquare(x, y);
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    // Reference ray walk, only used to fill the magic tables
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        int startX = Board.fileOf(square);
+        int startY = Board.rankOf(square);
+        for (int[] direction : directions) {
+            int x = startX + direction[0];
+            int y = startY + direction[1];
+            while (x >= 0 && x < Board.SIZE && y >= 0 && y < Board.SIZE) {
+                long bit = 1L << Board.toSquare(x, y);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break; // First blocker is included, nothing behind it
+                }
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long stepAttacks(int x, int y, int[][] offsets) {
+        long attacks = 0L;
+        for (int[] offset : offsets) {
+            int targetX = x + offset[0];
+            int targetY = y + offset[1];
+            if (targetX >= 0 && targetX < Board.SIZE && targetY >= 0 && targetY < Board.SIZE) {
+                attacks |= 1L << Board.toSquare(targetX, targetY);
+            }
+        }
+        return attacks;
+    }
+}
\ No newline at end of file
@@ -3,115 +3,666 @@ package model;
 import pieces.*;
 import java.awt.Point;
 
-public class Board {
-    private Piece[][] board;
+public class Board implements PositionView {
     public static final int SIZE = 8;
 
+    // Squares are indexed y * SIZE + x, so index 0 is a8 and index 63 is h1.
+    // The mailbox keeps the Piece objects (they carry hasMoved state), while the
+    // bitboards mirror it so occupancy questions are answered with mask operations.
+    private Piece[] squares;
+    private long[] pieceBitboards;   // one per color/type pair, see bitboardIndex()
+    private long[] colorBitboards;   // union of all pieces of one color
+    private long occupied;           // union of both colors
+    private int[] kingSquares;       // per color, kept up to date by put()
+    private int enPassantSquare;     // square a pawn just skipped over, or NO_SQUARE
+    private Piece.Color sideToMove;  // flipped by makeMove/unmakeMove
+    private long zobristKey;         // hash of the position, see Zobrist
+    private int halfmoveClock;       // plies since the last capture or pawn move, for the fifty-move rule
+    private int fullmoveNumber;      // starts at 1 and goes up after each Black move, as in FEN
+    private Position snapshot;       // immutable copy of the current position, dropped on every change
+
+    // Running evaluation terms per color, kept up to date by put() (see PieceSquareTables)
+    private int[] material;
+    private int[] middlegameScores;  // piece-square table sums
+    private int[] endgameScores;
+
+    // Undo records for makeMove/unmakeMove. Slots are reused, so making and
+    // unmaking moves in place does not allocate once the stack has warmed up.
+    private UndoState[] undoStack;
+    private int undoCount;
+
+    public static final int NO_SQUARE = -1;
+    private static final int NO_CASTLING_CHANGE = -1;
+
+    private static final Point[] SQUARE_POINTS = new Point[SIZE * SIZE];
+    static {
+        for (int square = 0; square < SIZE * SIZE; square++) {
+            SQUARE_POINTS[square] = new Point(fileOf(square), rankOf(square));
+        }
+    }
+
+    // Castling rights bits, see getCastlingRights()
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
     public Board() {
-        board = new Piece[SIZE][SIZE];
-        initializeBoard();
+        this(true);
     }
 
-    private void initializeBoard() {
-        // Clear board initially
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                board[i][j] = null;
-            }
+    // An empty board with White to move, for setting up arbitrary positions (see Fen)
+    static Board createEmpty() {
+        return new Board(false);
+    }
+
+    private Board(boolean setupStartingPosition) {
+        squares = new Piece[SIZE * SIZE];
+        pieceBitboards = new long[12];
+        colorBitboards = new long[2];
+        occupied = 0L;
+        kingSquares = new int[] {NO_SQUARE, NO_SQUARE};
+        material = new int[2];
+        middlegameScores = new int[2];
+        endgameScores = new int[2];
+        enPassantSquare = NO_SQUARE;
+        sideToMove = Piece.Color.WHITE;
+        zobristKey = 0L;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoStack = new UndoState[64];
+        undoCount = 0;
+        if (setupStartingPosition) {
+            initializeBoard();
+            zobristKey ^= Zobrist.castling(getCastlingRights());
         }
+    }
 
+    private void initializeBoard() {
         // Place Black pieces
-        board[0][0] = new Rook(Piece.Color.BLACK, new Point(0, 0));
-        board[1][0] = new Knight(Piece.Color.BLACK, new Point(1, 0));
-        board[2][0] = new Bishop(Piece.Color.BLACK, new Point(2, 0));
-        board[3][0] = new Queen(Piece.Color.BLACK, new Point(3, 0));
-        board[4][0] = new King(Piece.Color.BLACK, new Point(4, 0));
-        board[5][0] = new Bishop(Piece.Color.BLACK, new Point(5, 0));
-        board[6][0] = new Knight(Piece.Color.BLACK, new Point(6, 0));
-        board[7][0] = new Rook(Piece.Color.BLACK, new Point(7, 0));
+        put(0, 0, new Rook(Piece.Color.BLACK, new Point(0, 0)));
+        put(1, 0, new Knight(Piece.Color.BLACK, new Point(1, 0)));
+        put(2, 0, new Bishop(Piece.Color.BLACK, new Point(2, 0)));
+        put(3, 0, new Queen(Piece.Color.BLACK, new Point(3, 0)));
+        put(4, 0, new King(Piece.Color.BLACK, new Point(4, 0)));
+        put(5, 0, new Bishop(Piece.Color.BLACK, new Point(5, 0)));
+        put(6, 0, new Knight(Piece.Color.BLACK, new Point(6, 0)));
+        put(7, 0, new Rook(Piece.Color.BLACK, new Point(7, 0)));
         for (int i = 0; i < SIZE; i++) {
-            board[i][1] = new Pawn(Piece.Color.BLACK, new Point(i, 1));
+            put(i, 1, new Pawn(Piece.Color.BLACK, new Point(i, 1)));
         }
 
         // Place White pieces
-        board[0][7] = new Rook(Piece.Color.WHITE, new Point(0, 7));
-        board[1][7] = new Knight(Piece.Color.WHITE, new Point(1, 7));
-        board[2][7] = new Bishop(Piece.Color.WHITE, new Point(2, 7));
-        board[3][7] = new Queen(Piece.Color.WHITE, new Point(3, 7));
-        board[4][7] = new King(Piece.Color.WHITE, new Point(4, 7));
-        board[5][7] = new Bishop(Piece.Color.WHITE, new Point(5, 7));
-        board[6][7] = new Knight(Piece.Color.WHITE, new Point(6, 7));
-        board[7][7] = new Rook(Piece.Color.WHITE, new Point(7, 7));
+        put(0, 7, new Rook(Piece.Color.WHITE, new Point(0, 7)));
+        put(1, 7, new Knight(Piece.Color.WHITE, new Point(1, 7)));
+        put(2, 7, new Bishop(Piece.Color.WHITE, new Point(2, 7)));
+        put(3, 7, new Queen(Piece.Color.WHITE, new Point(3, 7)));
+        put(4, 7, new King(Piece.Color.WHITE, new Point(4, 7)));
+        put(5, 7, new Bishop(Piece.Color.WHITE, new Point(5, 7)));
+        put(6, 7, new Knight(Piece.Color.WHITE, new Point(6, 7)));
+        put(7, 7, new Rook(Piece.Color.WHITE, new Point(7, 7)));
         for (int i = 0; i < SIZE; i++) {
-            board[i][6] = new Pawn(Piece.Color.WHITE, new Point(i, 6));
+            put(i, 6, new Pawn(Piece.Color.WHITE, new Point(i, 6)));
         }
     }
 
     public Piece getPiece(Point position) {
         if (isValidPosition(position)) {
-            return board[position.x][position.y];
+            return squares[toSquare(position.x, position.y)];
         }
         return null;
     }
 
+    // Allocation-free lookup for hot paths
+    public Piece getPiece(int x, int y) {
+        if (x >= 0 && x < SIZE && y >= 0 && y < SIZE) {
+            return squares[toSquare(x, y)];
+        }
+        return null;
+    }
+
+    public Piece getPiece(int square) {
+        return squares[square];
+    }
+
+    @Override
+    public Piece.Type getPieceType(int square) {
+        Piece piece = squares[square];
+        return piece == null ? null : piece.getType();
+    }
+
+    @Override
+    public Piece.Color getPieceColor(int square) {
+        Piece piece = squares[square];
+        return piece == null ? null : piece.getColor();
+    }
+
     public void setPiece(Point position, Piece piece) {
         if (isValidPosition(position)) {
-            board[position.x][position.y] = piece;
+            put(position.x, position.y, piece);
             if (piece != null) {
                 piece.setPosition(position); // Keep piece's internal position updated
             }
         }
     }
 
+    private void put(int x, int y, Piece piece) {
+        put(toSquare(x, y), piece);
+    }
+
+    // Writes the mailbox and keeps the bitboards in sync with it
+    private void put(int square, Piece piece) {
+        long mask = 1L << square;
+        snapshot = null;
+
+        Piece previous = squares[square];
+        if (previous != null) {
+            pieceBitboards[bitboardIndex(previous.getColor(), previous.getType())] &= ~mask;
+            colorBitboards[previous.getColor().ordinal()] &= ~mask;
+            occupied &= ~mask;
+            zobristKey ^= Zobrist.piece(previous.getColor(), previous.getType(), square);
+            int color = previous.getColor().ordinal();
+            material[color] -= PieceSquareTables.value(previous.getType());
+            middlegameScores[color] -= PieceSquareTables.middlegame(previous.getColor(), previous.getType(), square);
+            endgameScores[color] -= PieceSquareTables.endgame(previous.getColor(), previous.getType(), square);
+            if (previous.getType() == Piece.Type.KING && kingSquares[previous.getColor().ordinal()] == square) {
+                kingSquares[previous.getColor().ordinal()] = NO_SQUARE;
+            }
+        }
+
+        squares[square] = piece;
+        if (piece != null) {
+            pieceBitboards[bitboardIndex(piece.getColor(), piece.getType())] |= mask;
+            colorBitboards[piece.getColor().ordinal()] |= mask;
+            occupied |= mask;
+            zobristKey ^= Zobrist.piece(piece.getColor(), piece.getType(), square);
+            int color = piece.getColor().ordinal();
+            material[color] += PieceSquareTables.value(piece.getType());
+            middlegameScores[color] += PieceSquareTables.middlegame(piece.getColor(), piece.getType(), square);
+            endgameScores[color] += PieceSquareTables.endgame(piece.getColor(), piece.getType(), square);
+            if (piece.getType() == Piece.Type.KING) {
+                kingSquares[piece.getColor().ordinal()] = square;
+            }
+        }
+    }
+
+    // Total material of one side in centipawns (Kings count 0), maintained incrementally
+    public int getMaterial(Piece.Color color) {
+        return material[color.ordinal()];
+    }
+
+    // Sum of the middlegame piece-square table entries for one side's pieces
+    public int getMiddlegameScore(Piece.Color color) {
+        return middlegameScores[color.ordinal()];
+    }
+
+    // Sum of the endgame piece-square table entries for one side's pieces
+    public int getEndgameScore(Piece.Color color) {
+        return endgameScores[color.ordinal()];
+    }
+
+    // Square of the given side's King, or NO_SQUARE if it is not on the board
+    public int getKingSquare(Piece.Color color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    public Point getKingPosition(Piece.Color color) {
+        int square = kingSquares[color.ordinal()];
+        return square == NO_SQUARE ? null : new Point(fileOf(square), rankOf(square));
+    }
+
+    /**
+     * Checks whether any piece of the given color attacks a square.
+     * Looks outward from the square with the knight, king and pawn tables and the
+     * sliding rays, so the cost does not depend on how many pieces are on the board.
+     *
+     * @param square The square index to test.
+     * @param attackerColor The color of the attacking side.
+     * @return true if at least one piece of attackerColor attacks the square.
+     */
+    @Override
+    public boolean isSquareAttacked(int square, Piece.Color attackerColor) {
+        return Attacks.isSquareAttacked(this, square, attackerColor, occupied, 0L);
+    }
+
+    /**
+     * Returns an immutable snapshot of the current position. The snapshot is
+     * built on first request and then shared until the board next changes,
+     * so asking again for an unchanged board costs nothing. Pieces' hasMoved
+     * flags changed behind the board's back (see Fen) are only picked up after
+     * {@link #refreshZobristKey()}.
+     */
+    @Override
+    public Position snapshot() {
+        if (snapshot == null) {
+            snapshot = new Position(pieceBitboards.clone(), sideToMove, getCastlingRights(),
+                    enPassantSquare, halfmoveClock, zobristKey);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Plays a move on this board in place and records what is needed to take it back.
+     * The move is assumed to be legal; en passant, castling and promotion are
+     * recognised from the position itself, so plain Move objects work too.
+     * Every call must be matched by a later {@link #unmakeMove()}.
+     *
+     * @param move The move to play.
+     */
+    public void makeMove(Move move) {
+        makeMove(PackedMove.fromMove(move, this));
+    }
+
+    /**
+     * Plays a packed move (see {@link PackedMove}) in place. This is the
+     * allocation-free path used by move generation and search.
+     *
+     * @param move The packed move to play.
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece piece = squares[from];
+
+        // Castling rights only change when a King or Rook moves or a Rook is captured
+        Piece target = squares[to];
+        int castlingRightsBefore = (piece.getType() == Piece.Type.KING || piece.getType() == Piece.Type.ROOK
+                || (target != null && target.getType() == Piece.Type.ROOK))
+                ? getCastlingRights() : NO_CASTLING_CHANGE;
+
+        UndoState undo = pushUndo();
+        undo.move = move;
+        undo.piece = piece;
+        undo.enPassantSquare = enPassantSquare;
+        undo.zobristKey = zobristKey;
+        undo.halfmoveClock = halfmoveClock;
+        undo.pieceHadMoved = hasMoved(piece);
+        undo.rook = null;
+        undo.promotedPiece = null;
+
+        // En passant captures the pawn beside the start square, not on the destination
+        int capturedSquare = PackedMove.isEnPassant(move) ? toSquare(fileOf(to), rankOf(from)) : to;
+        undo.captured = squares[capturedSquare];
+        undo.capturedSquare = capturedSquare;
+        if (undo.captured != null) {
+            put(capturedSquare, null);
+        }
+
+        put(from, null);
+        Piece placed = piece;
+        if (PackedMove.isPromotion(move)) {
+            placed = createPiece(PackedMove.promotionType(move), piece.getColor(), null);
+            undo.promotedPiece = placed;
+        }
+        put(to, placed);
+        placed.setPosition(pointOf(to));
+        setHasMoved(piece, true);
+
+        if (PackedMove.isCastling(move)) {
+            // Castling: bring the rook over to the other side of the king
+            int rookFrom = castlingRookFrom(move);
+            int rookTo = castlingRookTo(move);
+            Piece rook = squares[rookFrom];
+            undo.rook = rook;
+            undo.rookHadMoved = hasMoved(rook);
+            put(rookFrom, null);
+            put(rookTo, rook);
+            rook.setPosition(pointOf(rookTo));
+            setHasMoved(rook, true);
+        }
+
+        if (castlingRightsBefore != NO_CASTLING_CHANGE) {
+            zobristKey ^= Zobrist.castling(castlingRightsBefore) ^ Zobrist.castling(getCastlingRights());
+        }
+
+        zobristKey ^= Zobrist.enPassant(enPassantSquare);
+        enPassantSquare = NO_SQUARE;
+        if (PackedMove.isDoublePawnPush(move)) {
+            // Only remember the square if an enemy pawn can actually capture onto it; otherwise
+            // the same placement reached by other moves would hash differently and hide repetitions
+            int skipped = (from + to) / 2;
+            long enemyPawns = pieceBitboards[bitboardIndex(opposite(piece.getColor()), Piece.Type.PAWN)];
+            if ((Attacks.pawnAttacks(piece.getColor(), skipped) & enemyPawns) != 0) {
+                enPassantSquare = skipped;
+                zobristKey ^= Zobrist.enPassant(enPassantSquare);
+            }
+        }
+        halfmoveClock = (piece.getType() == Piece.Type.PAWN || undo.captured != null) ? 0 : halfmoveClock + 1;
+        if (sideToMove == Piece.Color.BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = opposite(sideToMove);
+        zobristKey ^= Zobrist.blackToMove();
+        snapshot = null;
+    }
+
+    /**
+     * Takes back the most recent makeMove, restoring captured pieces,
+     * hasMoved flags (and with them castling rights) and the en passant square.
+     */
+    public void unmakeMove() {
+        UndoState undo = undoStack[--undoCount];
+        int move = undo.move;
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece piece = undo.piece; // for a promotion this is the pawn, not the promoted piece
+
+        put(to, null);
+        put(from, piece);
+        piece.setPosition(pointOf(from));
+        setHasMoved(piece, undo.pieceHadMoved);
+
+        if (undo.captured != null) {
+            // The captured piece never had its position changed, so it goes straight back
+            put(undo.capturedSquare, undo.captured);
+        }
+
+        if (undo.rook != null) {
+            int rookFrom = castlingRookFrom(move);
+            put(castlingRookTo(move), null);
+            put(rookFrom, undo.rook);
+            undo.rook.setPosition(pointOf(rookFrom));
+            setHasMoved(undo.rook, undo.rookHadMoved);
+        }
+
+        enPassantSquare = undo.enPassantSquare;
+        sideToMove = opposite(sideToMove);
+        zobristKey = undo.zobristKey; // the put() calls above also touched it; the saved key is exact
+        halfmoveClock = undo.halfmoveClock;
+        if (sideToMove == Piece.Color.BLACK) {
+            fullmoveNumber--;
+        }
+        snapshot = null;
+        undo.captured = null;
+        undo.promotedPiece = null;
+        undo.piece = null;
+        undo.rook = null;
+    }
+
+    // The rook starts in the corner on the side the king moves towards...
+    static int castlingRookFrom(int move) {
+        int kingTo = PackedMove.to(move);
+        return PackedMove.flags(move) == PackedMove.KING_CASTLE ? kingTo + 1 : kingTo - 2;
+    }
+
+    // ...and lands on the square the king passed over
+    static int castlingRookTo(int move) {
+        int kingTo = PackedMove.to(move);
+        return PackedMove.flags(move) == PackedMove.KING_CASTLE ? kingTo - 1 : kingTo + 1;
+    }
+
+    private UndoState pushUndo() {
+        if (undoCount == undoStack.length) {
+            UndoState[] grown = new UndoState[undoStack.length * 2];
+            System.arraycopy(undoStack, 0, grown, 0, undoStack.length);
+            undoStack = grown;
+        }
+        UndoState undo = undoStack[undoCount];
+        if (undo == null) {
+            undo = new UndoState();
+            undoStack[undoCount] = undo;
+        }
+        undoCount++;
+        return undo;
+    }
+
+    static Piece createPiece(Piece.Type type, Piece.Color color, Point position) {
+        switch (type) {
+            case PAWN: return new Pawn(color, position);
+            case KNIGHT: return new Knight(color, position);
+            case BISHOP: return new Bishop(color, position);
+            case ROOK: return new Rook(color, position);
+            case QUEEN: return new Queen(color, position);
+            default: return new King(color, position);
+        }
+    }
+
+    /**
+     * Returns a shared Point for a square index, so moving pieces around does
+     * not allocate. The returned Point must not be modified.
+     */
+    public static Point pointOf(int square) {
+        return SQUARE_POINTS[square];
+    }
+
+    private static boolean hasMoved(Piece piece) {
+        if (piece instanceof Pawn) {
+            return ((Pawn) piece).hasMoved();
+        } else if (piece instanceof King) {
+            return ((King) piece).hasMoved();
+        } else if (piece instanceof Rook) {
+            return ((Rook) piece).hasMoved();
+        }
+        return false;
+    }
+
+    private static void setHasMoved(Piece piece, boolean hasMoved) {
+        if (piece instanceof Pawn) {
+            ((Pawn) piece).setHasMoved(hasMoved);
+        } else if (piece instanceof King) {
+            ((King) piece).setHasMoved(hasMoved);
+        } else if (piece instanceof Rook) {
+            ((Rook) piece).setHasMoved(hasMoved);
+        }
+    }
+
+    /**
+     * The Zobrist hash of the current position: piece placement, side to move,
+     * castling rights and en passant file. Maintained incrementally by every
+     * change to the board, so reading it is O(1).
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Recomputes the hash from scratch. Needed after hasMoved flags are changed
+     * directly on pieces (e.g. while setting up a position), since castling
+     * rights are derived from them.
+     */
+    public void refreshZobristKey() {
+        long key = 0L;
+        for (int square = 0; square < SIZE * SIZE; square++) {
+            Piece piece = squares[square];
+            if (piece != null) {
+                key ^= Zobrist.piece(piece.getColor(), piece.getType(), square);
+            }
+        }
+        key ^= Zobrist.castling(getCastlingRights());
+        key ^= Zobrist.enPassant(enPassantSquare);
+        if (sideToMove == Piece.Color.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        zobristKey = key;
+        snapshot = null;
+    }
+
+    /**
+     * The keys of the positions played through this board since the last
+     * capture or pawn move, oldest first, not counting the current one. No
+     * earlier position can come back, so these are all the current position
+     * or any later one could repeat.
+     */
+    public long[] getRepetitionHistory() {
+        int count = Math.min(halfmoveClock, undoCount);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = undoStack[undoCount - count + i].zobristKey;
+        }
+        return keys;
+    }
+
+    // Plies since the last capture or pawn move; the fifty-move rule applies at 100
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+        snapshot = null;
+    }
+
+    // Not part of the position itself, so it is left out of the Zobrist key and of snapshots
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    public Piece.Color getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(Piece.Color sideToMove) {
+        if (sideToMove != this.sideToMove) {
+            zobristKey ^= Zobrist.blackToMove();
+        }
+        this.sideToMove = sideToMove;
+        snapshot = null;
+    }
+
+    private static Piece.Color opposite(Piece.Color color) {
+        return color == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE;
+    }
+
+    // Square a pawn skipped over with its last two-square push, or NO_SQUARE
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int square) {
+        zobristKey ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.enPassant(square);
+        this.enPassantSquare = square;
+        snapshot = null;
+    }
+
+    /**
+     * Castling rights follow directly from the King and Rook hasMoved flags,
+     * so they are derived on demand rather than stored separately.
+     *
+     * @return A combination of the WHITE_/BLACK_ KINGSIDE/QUEENSIDE bits.
+     */
+    public int getCastlingRights() {
+        int rights = 0;
+        if (isUnmovedKing(4, 7, Piece.Color.WHITE)) {
+            if (isUnmovedRook(7, 7, Piece.Color.WHITE)) rights |= WHITE_KINGSIDE;
+            if (isUnmovedRook(0, 7, Piece.Color.WHITE)) rights |= WHITE_QUEENSIDE;
+        }
+        if (isUnmovedKing(4, 0, Piece.Color.BLACK)) {
+            if (isUnmovedRook(7, 0, Piece.Color.BLACK)) rights |= BLACK_KINGSIDE;
+            if (isUnmovedRook(0, 0, Piece.Color.BLACK)) rights |= BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private boolean isUnmovedKing(int x, int y, Piece.Color color) {
+        Piece piece = squares[toSquare(x, y)];
+        return piece instanceof King && piece.getColor() == color && !((King) piece).hasMoved();
+    }
+
+    private boolean isUnmovedRook(int x, int y, Piece.Color color) {
+        Piece piece = squares[toSquare(x, y)];
+        return piece instanceof Rook && piece.getColor() == color && !((Rook) piece).hasMoved();
+    }
+
     public boolean isValidPosition(Point p) {
         return p != null && p.x >= 0 && p.x < SIZE && p.y >= 0 && p.y < SIZE;
     }
 
+    public boolean isOccupied(int x, int y) {
+        return (occupied & (1L << toSquare(x, y))) != 0;
+    }
+
+    // Bitboard of all pieces of the given color and type
+    public long getBitboard(Piece.Color color, Piece.Type type) {
+        return pieceBitboards[bitboardIndex(color, type)];
+    }
+
+    // Bitboard of all pieces of the given color
+    public long getOccupancy(Piece.Color color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    // Bitboard of every occupied square
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public static int toSquare(int x, int y) {
+        return y * SIZE + x;
+    }
+
+    public static int toSquare(Point p) {
+        return toSquare(p.x, p.y);
+    }
+
+    public static int fileOf(int square) {
+        return square % SIZE;
+    }
+
+    public static int rankOf(int square) {
+        return square / SIZE;
+    }
+
+    private static int bitboardIndex(Piece.Color color, Piece.Type type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
     // Creates a deep copy of the board for move simulation
     public Board copy() {
-        Board newBoard = new Board();
-        // Clear the new board's initial setup
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                newBoard.board[i][j] = null;
-            }
-        }
+        Board newBoard = new Board(false);
 
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                Piece originalPiece = this.board[i][j];
-                if (originalPiece != null) {
-                    // Create a new instance of the specific piece type
-                    // and copy its essential state (color, position, and hasMoved for Pawn, King, Rook)
-                    Piece copiedPiece = null;
-                    Point newPos = new Point(originalPiece.getPosition()); // Copy the point
-
-                    if (originalPiece instanceof Pawn) {
-                        Pawn originalPawn = (Pawn) originalPiece;
-                        Pawn newPawn = new Pawn(originalPawn.getColor(), newPos);
-                        newPawn.setHasMoved(originalPawn.hasMoved());
-                        copiedPiece = newPawn;
-                    } else if (originalPiece instanceof Rook) {
-                        Rook originalRook = (Rook) originalPiece;
-                        Rook newRook = new Rook(originalRook.getColor(), newPos);
-                        newRook.setHasMoved(originalRook.hasMoved());
-                        copiedPiece = newRook;
-                    } else if (originalPiece instanceof Knight) {
-                        copiedPiece = new Knight(originalPiece.getColor(), newPos);
-                    } else if (originalPiece instanceof Bishop) {
-                        copiedPiece = new Bishop(originalPiece.getColor(), newPos);
-                    } else if (originalPiece instanceof Queen) {
-                        copiedPiece = new Queen(originalPiece.getColor(), newPos);
-                    } else if (originalPiece instanceof King) {
-                        King originalKing = (King) originalPiece;
-                        King newKing = new King(originalKing.getColor(), newPos);
-                        newKing.setHasMoved(originalKing.hasMoved()); // For castling
-                        copiedPiece = newKing;
-                    }
-                    newBoard.board[i][j] = copiedPiece;
+        for (int square = 0; square < SIZE * SIZE; square++) {
+            Piece originalPiece = this.squares[square];
+            if (originalPiece != null) {
+                // Create a new instance of the specific piece type
+                // and copy its essential state (color, position, and hasMoved for Pawn, King, Rook)
+                Piece copiedPiece = null;
+                Point newPos = new Point(originalPiece.getPosition()); // Copy the point
+
+                if (originalPiece instanceof Pawn) {
+                    Pawn originalPawn = (Pawn) originalPiece;
+                    Pawn newPawn = new Pawn(originalPawn.getColor(), newPos);
+                    newPawn.setHasMoved(originalPawn.hasMoved());
+                    copiedPiece = newPawn;
+                } else if (originalPiece instanceof Rook) {
+                    Rook originalRook = (Rook) originalPiece;
+                    Rook newRook = new Rook(originalRook.getColor(), newPos);
+                    newRook.setHasMoved(originalRook.hasMoved());
+                    copiedPiece = newRook;
+                } else if (originalPiece instanceof Knight) {
+                    copiedPiece = new Knight(originalPiece.getColor(), newPos);
+                } else if (originalPiece instanceof Bishop) {
+                    copiedPiece = new Bishop(originalPiece.getColor(), newPos);
+                } else if (originalPiece instanceof Queen) {
+                    copiedPiece = new Queen(originalPiece.getColor(), newPos);
+                } else if (originalPiece instanceof King) {
+                    King originalKing = (King) originalPiece;
+                    King newKing = new King(originalKing.getColor(), newPos);
+                    newKing.setHasMoved(originalKing.hasMoved()); // For castling
+                    copiedPiece = newKing;
                 }
+                newBoard.squares[square] = copiedPiece;
             }
         }
+
+        // The copy holds the same pieces on the same squares, so the bitboards carry over as-is
+        System.arraycopy(this.pieceBitboards, 0, newBoard.pieceBitboards, 0, this.pieceBitboards.length);
+        System.arraycopy(this.colorBitboards, 0, newBoard.colorBitboards, 0, this.colorBitboards.length);
+        newBoard.occupied = this.occupied;
+        newBoard.kingSquares[0] = this.kingSquares[0];
+        newBoard.kingSquares[1] = this.kingSquares[1];
+        System.arraycopy(this.material, 0, newBoard.material, 0, 2);
+        System.arraycopy(this.middlegameScores, 0, newBoard.middlegameScores, 0, 2);
+        System.arraycopy(this.endgameScores, 0, newBoard.endgameScores, 0, 2);
+        newBoard.enPassantSquare = this.enPassantSquare;
+        newBoard.sideToMove = this.sideToMove;
+        newBoard.zobristKey = this.zobristKey;
+        newBoard.halfmoveClock = this.halfmoveClock;
+        newBoard.fullmoveNumber = this.fullmoveNumber;
+        newBoard.snapshot = this.snapshot; // immutable, so both boards can share it
         return newBoard;
     }
 
@@ -122,7 +673,7 @@ public class Board {
         for (int y = 0; y < SIZE; y++) {
             System.out.print((8 - y) + "|");
             for (int x = 0; x < SIZE; x++) {
-                Piece piece = board[x][y];
+                Piece piece = getPiece(x, y);
                 System.out.print((piece == null ? "." : piece.getSymbol()) + " ");
             }
             System.out.println("|" + (8 - y));
@@ -130,4 +681,19 @@ public class Board {
         System.out.println(" -----------------");
         System.out.println("  a b c d e f g h");
     }
+
+    // Everything makeMove changes that cannot be recomputed from the move itself
+    private static class UndoState {
+        int move;               // packed, see PackedMove
+        Piece piece;            // the piece that moved (the pawn, for promotions)
+        Piece promotedPiece;
+        Piece captured;
+        int capturedSquare;
+        boolean pieceHadMoved;
+        Piece rook;             // the castling rook, or null
+        boolean rookHadMoved;
+        int enPassantSquare;
+        long zobristKey;
+        int halfmoveClock;
+    }
 }
\ No newline at end of file
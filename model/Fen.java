@@ -0,0 +1,300 @@
+package model;
+
+import pieces.*;
+import java.awt.Point;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation.
+ * Castling rights are mapped onto the King and Rook hasMoved flags, which is
+ * where the rest of the code looks for them, and read back from them by
+ * {@link Board#getCastlingRights()} when writing.
+ * The reader walks the string once with an index instead of splitting it, so
+ * loading a position allocates only the board and its pieces.
+ */
+public final class Fen {
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "pnbrqk"; // by Piece.Type ordinal
+
+    private Fen() {
+    }
+
+    /**
+     * Builds a board from a FEN string. Only the placement field is required;
+     * missing side-to-move, castling, en passant, halfmove and fullmove fields
+     * default to "w", "-", "-", 0 and 1.
+     * An en passant square no pawn can capture onto is dropped, as Board only
+     * records capturable ones (see {@link Board#getEnPassantSquare()}).
+     * Positions the move generator cannot play from are rejected: each side
+     * must have exactly one king, no pawn may stand on the first or eighth
+     * rank, and every castling flag needs its king and rook on their home
+     * squares.
+     *
+     * @param fen The position in FEN.
+     * @return A new board holding the position.
+     * @throws IllegalArgumentException if the string is not valid FEN or not a playable position.
+     */
+    public static Board toBoard(String fen) {
+        Board board = Board.createEmpty();
+        int length = fen.length();
+        int index = skipSpaces(fen, 0);
+
+        // Placement: ranks 8 to 1, separated by '/'
+        int x = 0;
+        int y = 0;
+        for (; index < length && !Character.isWhitespace(fen.charAt(index)); index++) {
+            char c = fen.charAt(index);
+            if (c == '/') {
+                if (x != Board.SIZE || ++y >= Board.SIZE) {
+                    throw new IllegalArgumentException("Rank " + (8 - y) + " does not have 8 squares: " + fen);
+                }
+                x = 0;
+            } else if (c >= '1' && c <= '8') {
+                x += c - '0';
+            } else {
+                if (x >= Board.SIZE) {
+                    throw new IllegalArgumentException("Rank " + (8 - y) + " is too long: " + fen);
+                }
+                if ((c == 'P' || c == 'p') && (y == 0 || y == Board.SIZE - 1)) {
+                    throw new IllegalArgumentException("Pawn on rank " + (8 - y) + ": " + fen);
+                }
+                Point point = Board.pointOf(Board.toSquare(x, y));
+                board.setPiece(point, createPiece(c, point));
+                x++;
+            }
+        }
+        if (y != Board.SIZE - 1 || x != Board.SIZE) {
+            throw new IllegalArgumentException("FEN needs 8 ranks of 8 squares: " + fen);
+        }
+        for (Piece.Color color : Piece.Color.values()) {
+            if (Long.bitCount(board.getBitboard(color, Piece.Type.KING)) != 1) {
+                throw new IllegalArgumentException("Each side needs exactly one king: " + fen);
+            }
+        }
+
+        // Side to move
+        index = skipSpaces(fen, index);
+        if (index < length) {
+            char side = fen.charAt(index);
+            if (side == 'b') {
+                board.setSideToMove(Piece.Color.BLACK);
+            } else if (side != 'w') {
+                throw new IllegalArgumentException("Side to move must be w or b: " + fen);
+            }
+            index = expectFieldEnd(fen, index + 1);
+        }
+
+        // Castling
+        index = skipSpaces(fen, index);
+        for (; index < length && !Character.isWhitespace(fen.charAt(index)); index++) {
+            char c = fen.charAt(index);
+            if (c != '-') {
+                applyCastlingRight(board, c, fen);
+            }
+        }
+
+        // En passant target
+        index = skipSpaces(fen, index);
+        if (index < length) {
+            if (fen.charAt(index) == '-') {
+                index = expectFieldEnd(fen, index + 1);
+            } else {
+                int square = parseSquare(fen, index);
+                index = expectFieldEnd(fen, index + 2);
+                // Only a pawn of the side to move standing beside the skipped square can use it
+                Piece.Color mover = board.getSideToMove();
+                Piece.Color opponent = mover == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE;
+                if ((Attacks.pawnAttacks(opponent, square) & board.getBitboard(mover, Piece.Type.PAWN)) != 0) {
+                    board.setEnPassantSquare(square);
+                }
+            }
+        }
+
+        // Halfmove clock and fullmove number
+        index = skipSpaces(fen, index);
+        if (index < length) {
+            int end = fieldEnd(fen, index);
+            board.setHalfmoveClock(parseNumber(fen, index, end));
+            index = skipSpaces(fen, end);
+            if (index < length) {
+                end = fieldEnd(fen, index);
+                board.setFullmoveNumber(Math.max(1, parseNumber(fen, index, end)));
+                index = skipSpaces(fen, end);
+            }
+        }
+        if (index < length) {
+            throw new IllegalArgumentException("Unexpected text after the fullmove number: " + fen);
+        }
+
+        board.refreshZobristKey(); // castling rights were applied to the pieces directly
+        return board;
+    }
+
+    /**
+     * Writes a board as FEN, including its halfmove clock and fullmove number.
+     */
+    public static String toFen(Board board) {
+        return toFen(board, board.getFullmoveNumber());
+    }
+
+    /**
+     * Writes a position as FEN. A {@link Position} does not track the move
+     * number, so it is passed in.
+     *
+     * @param position The position to write; only read.
+     * @param fullmoveNumber The number of the move about to be played, from 1.
+     * @return The six FEN fields separated by spaces.
+     */
+    public static String toFen(PositionView position, int fullmoveNumber) {
+        StringBuilder fen = new StringBuilder(90);
+        for (int y = 0; y < Board.SIZE; y++) {
+            int empty = 0;
+            for (int x = 0; x < Board.SIZE; x++) {
+                int square = Board.toSquare(x, y);
+                Piece.Type type = position.getPieceType(square);
+                if (type == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char letter = PIECE_LETTERS.charAt(type.ordinal());
+                fen.append(position.getPieceColor(square) == Piece.Color.WHITE ? Character.toUpperCase(letter) : letter);
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (y < Board.SIZE - 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(position.getSideToMove() == Piece.Color.WHITE ? " w " : " b ");
+
+        int rights = position.getCastlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        } else {
+            if ((rights & Board.WHITE_KINGSIDE) != 0) fen.append('K');
+            if ((rights & Board.WHITE_QUEENSIDE) != 0) fen.append('Q');
+            if ((rights & Board.BLACK_KINGSIDE) != 0) fen.append('k');
+            if ((rights & Board.BLACK_QUEENSIDE) != 0) fen.append('q');
+        }
+
+        int enPassantSquare = position.getEnPassantSquare();
+        fen.append(' ');
+        if (enPassantSquare == Board.NO_SQUARE) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + Board.fileOf(enPassantSquare))).append((char) ('8' - Board.rankOf(enPassantSquare)));
+        }
+
+        fen.append(' ').append(position.getHalfmoveClock()).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    // "e3" -> Point(4, 5)
+    public static Point parseSquare(String algebraic) {
+        if (algebraic.length() != 2) {
+            throw new IllegalArgumentException("Not a square: " + algebraic);
+        }
+        return Board.pointOf(parseSquare(algebraic, 0));
+    }
+
+    // Reads the two-character square name starting at index, as a square index
+    private static int parseSquare(String text, int index) {
+        if (index + 1 >= text.length()) {
+            throw new IllegalArgumentException("Not a square: " + text.substring(index));
+        }
+        int x = text.charAt(index) - 'a';
+        int y = 8 - (text.charAt(index + 1) - '0');
+        if (x < 0 || x >= Board.SIZE || y < 0 || y >= Board.SIZE) {
+            throw new IllegalArgumentException("Not a square: " + text.substring(index, index + 2));
+        }
+        return Board.toSquare(x, y);
+    }
+
+    private static int parseNumber(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9' || value > (Integer.MAX_VALUE - 9) / 10) {
+                throw new IllegalArgumentException("Not a move count: " + text.substring(start, end));
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int skipSpaces(String text, int index) {
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int fieldEnd(String text, int index) {
+        while (index < text.length() && !Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    // For single-token fields such as "w" or "e3": the next character must end the field
+    private static int expectFieldEnd(String text, int index) {
+        if (index < text.length() && !Character.isWhitespace(text.charAt(index))) {
+            throw new IllegalArgumentException("Unexpected '" + text.charAt(index) + "' in FEN: " + text);
+        }
+        return index;
+    }
+
+    private static Piece createPiece(char symbol, Point position) {
+        Piece.Color color = Character.isUpperCase(symbol) ? Piece.Color.WHITE : Piece.Color.BLACK;
+        switch (Character.toLowerCase(symbol)) {
+            case 'p': {
+                Pawn pawn = new Pawn(color, position);
+                // A pawn off its starting rank can no longer make a two-square move
+                pawn.setHasMoved(position.y != (color == Piece.Color.WHITE ? 6 : 1));
+                return pawn;
+            }
+            case 'n': return new Knight(color, position);
+            case 'b': return new Bishop(color, position);
+            case 'r': {
+                Rook rook = new Rook(color, position);
+                rook.setHasMoved(true); // Cleared again below if the castling field allows it
+                return rook;
+            }
+            case 'q': return new Queen(color, position);
+            case 'k': {
+                King king = new King(color, position);
+                king.setHasMoved(true);
+                return king;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown piece symbol: " + symbol);
+        }
+    }
+
+    private static void applyCastlingRight(Board board, char flag, String fen) {
+        int kingRow;
+        int rookCol;
+        switch (flag) {
+            case 'K': kingRow = 7; rookCol = 7; break;
+            case 'Q': kingRow = 7; rookCol = 0; break;
+            case 'k': kingRow = 0; rookCol = 7; break;
+            case 'q': kingRow = 0; rookCol = 0; break;
+            default:
+                throw new IllegalArgumentException("Unknown castling flag: " + flag);
+        }
+        Piece.Color color = Character.isUpperCase(flag) ? Piece.Color.WHITE : Piece.Color.BLACK;
+        Piece king = board.getPiece(4, kingRow);
+        Piece rook = board.getPiece(rookCol, kingRow);
+        if (!(king instanceof King) || !(rook instanceof Rook) || king.getColor() != color || rook.getColor() != color) {
+            throw new IllegalArgumentException("Castling flag " + flag + " without its king and rook at home: " + fen);
+        }
+        ((King) king).setHasMoved(false);
+        ((Rook) rook).setHasMoved(false);
+    }
+}
\ No newline at end of file
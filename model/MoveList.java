@@ -0,0 +1,66 @@
+package model;
+
+/**
+ * A growable list of packed moves (see {@link PackedMove}) backed by an int[].
+ * Generators append to it and searchers clear and reuse one list per ply,
+ * so no per-move objects are created.
+ */
+public class MoveList {
+    // No legal chess position has more than 218 moves
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+        this.size = 0;
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            int[] grown = new int[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, size);
+            moves = grown;
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Drops everything from the given index on, e.g. to discard moves found illegal
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package model;
+
+import java.awt.Point;
+
+/**
+ * Packs a move into the low 16 bits of an int:
+ * bits 0-5 hold the from-square, bits 6-11 the to-square (Board square indices)
+ * and bits 12-15 the flags below. For promotions the two low flag bits hold the
+ * promotion piece (0 = Knight, 1 = Bishop, 2 = Rook, 3 = Queen).
+ * The value 0 (a8 to a8) can never be a real move and is used as NONE.
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;          // combined with the promotion piece bits
+    public static final int PROMOTION_CAPTURE = 12; // PROMOTION | CAPTURE
+
+    private PackedMove() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int encodePromotion(int from, int to, Piece.Type promotionType, boolean isCapture) {
+        int flags = (isCapture ? PROMOTION_CAPTURE : PROMOTION) | (promotionType.ordinal() - 1);
+        return encode(from, to, flags);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return flags(move) == EN_PASSANT;
+    }
+
+    public static boolean isCastling(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static boolean isDoublePawnPush(int move) {
+        return flags(move) == DOUBLE_PAWN_PUSH;
+    }
+
+    // The piece a pawn promotes to, or null if the move is not a promotion
+    public static Piece.Type promotionType(int move) {
+        if (!isPromotion(move)) {
+            return null;
+        }
+        return Piece.Type.values()[(flags(move) & 3) + 1]; // KNIGHT is ordinal 1
+    }
+
+    /**
+     * Encodes a Move against the board it is about to be played on.
+     * Special moves are recognised from the position, so a plain Move for a
+     * king's two-square step or a diagonal pawn step to an empty square is
+     * still encoded as castling or en passant.
+     *
+     * @param move The move, not yet played.
+     * @param board The board the move will be played on.
+     * @return The packed move.
+     */
+    public static int fromMove(Move move, Board board) {
+        Point start = move.getStart();
+        Point end = move.getEnd();
+        int from = Board.toSquare(start);
+        int to = Board.toSquare(end);
+        Piece piece = board.getPiece(from);
+        boolean isCapture = board.getPiece(to) != null;
+
+        if (piece != null && piece.getType() == Piece.Type.KING && Math.abs(end.x - start.x) == 2) {
+            return encode(from, to, end.x > start.x ? KING_CASTLE : QUEEN_CASTLE);
+        }
+        if (piece != null && piece.getType() == Piece.Type.PAWN) {
+            if (end.y == 0 || end.y == Board.SIZE - 1) {
+                Piece promoted = move.getPromotedPieceType();
+                Piece.Type type = promoted == null ? Piece.Type.QUEEN : promoted.getType();
+                return encodePromotion(from, to, type, isCapture);
+            }
+            if (start.x != end.x && !isCapture) {
+                return encode(from, to, EN_PASSANT);
+            }
+            if (Math.abs(end.y - start.y) == 2) {
+                return encode(from, to, DOUBLE_PAWN_PUSH);
+            }
+        }
+        return encode(from, to, isCapture ? CAPTURE : QUIET);
+    }
+
+    /**
+     * Builds the equivalent Move object for UI code, using the pieces on the
+     * board the move is about to be played on.
+     *
+     * @param move The packed move, not yet played.
+     * @param board The board the move will be played on.
+     * @return A Move with the special-move flags set.
+     */
+    public static Move toMove(int move, Board board) {
+        int from = from(move);
+        int to = to(move);
+        Point start = new Point(Board.fileOf(from), Board.rankOf(from));
+        Point end = new Point(Board.fileOf(to), Board.rankOf(to));
+        Piece piece = board.getPiece(from);
+
+        if (isCastling(move)) {
+            return new Move(start, end, piece, true);
+        }
+        if (isEnPassant(move)) {
+            return new Move(start, end, piece, board.getPiece(Board.fileOf(to), Board.rankOf(from)), true);
+        }
+        if (isPromotion(move)) {
+            // Move expects a marker piece for the promotion type
+            Piece promotedPieceType = Board.createPiece(promotionType(move), piece.getColor(), null);
+            return new Move(start, end, piece, board.getPiece(to), promotedPieceType);
+        }
+        return new Move(start, end, piece, board.getPiece(to));
+    }
+
+    // e.g. "e2e4", "e7e8q"
+    public static String toUci(int move) {
+        int from = from(move);
+        int to = to(move);
+        String uci = "" + (char) ('a' + Board.fileOf(from)) + (8 - Board.rankOf(from))
+                + (char) ('a' + Board.fileOf(to)) + (8 - Board.rankOf(to));
+        if (isPromotion(move)) {
+            uci += "nbrq".charAt(flags(move) & 3);
+        }
+        return uci;
+    }
+}
\ No newline at end of file
@@ -8,6 +8,9 @@ public abstract class Piece {
 
     public enum Color { WHITE, BLACK }
 
+    // Index order matters: Board uses ordinal() to pick the matching bitboard
+    public enum Type { PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING }
+
     public Piece(Color color, Point position) {
         this.color = color;
         this.position = position;
@@ -31,6 +34,8 @@ public abstract class Piece {
 
     public abstract String getSymbol(); // e.g., "P", "R", "N", "B", "Q", "K"
 
+    public abstract Type getType();
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " " + getColor();
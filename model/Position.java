@@ -0,0 +1,242 @@
+package model;
+
+import pieces.*;
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * An immutable chess position: twelve piece bitboards plus side to move,
+ * castling rights, en passant square, halfmove clock and Zobrist key.
+ * Unlike Board it holds no Piece objects (which carry mutable position and
+ * hasMoved state), so one Position can be read by any number of threads at
+ * once without copying or locking. Get one from {@link Board#snapshot()};
+ * {@link #play(int)} returns the position after a move and {@link #toBoard()}
+ * turns a snapshot back into a Board a single thread can make moves on.
+ */
+public final class Position implements PositionView {
+    // Castling rights that survive a move touching each square: moving from or
+    // capturing on a King or Rook home square loses the rights tied to it
+    private static final int[] CASTLING_MASKS = new int[Board.SIZE * Board.SIZE];
+    static {
+        Arrays.fill(CASTLING_MASKS, Board.WHITE_KINGSIDE | Board.WHITE_QUEENSIDE
+                | Board.BLACK_KINGSIDE | Board.BLACK_QUEENSIDE);
+        CASTLING_MASKS[Board.toSquare(0, 0)] &= ~Board.BLACK_QUEENSIDE;
+        CASTLING_MASKS[Board.toSquare(7, 0)] &= ~Board.BLACK_KINGSIDE;
+        CASTLING_MASKS[Board.toSquare(4, 0)] &= ~(Board.BLACK_KINGSIDE | Board.BLACK_QUEENSIDE);
+        CASTLING_MASKS[Board.toSquare(0, 7)] &= ~Board.WHITE_QUEENSIDE;
+        CASTLING_MASKS[Board.toSquare(7, 7)] &= ~Board.WHITE_KINGSIDE;
+        CASTLING_MASKS[Board.toSquare(4, 7)] &= ~(Board.WHITE_KINGSIDE | Board.WHITE_QUEENSIDE);
+    }
+
+    private final long[] pieceBitboards; // [color * 6 + type], never modified after construction
+    private final long whitePieces;
+    private final long blackPieces;
+    private final Piece.Color sideToMove;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfmoveClock;
+    private final long zobristKey;
+
+    // Takes ownership of the bitboard array; callers must not touch it afterwards
+    Position(long[] pieceBitboards, Piece.Color sideToMove, int castlingRights,
+             int enPassantSquare, int halfmoveClock, long zobristKey) {
+        this.pieceBitboards = pieceBitboards;
+        long white = 0L;
+        long black = 0L;
+        for (int type = 0; type < 6; type++) {
+            white |= pieceBitboards[type];
+            black |= pieceBitboards[6 + type];
+        }
+        this.whitePieces = white;
+        this.blackPieces = black;
+        this.sideToMove = sideToMove;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.zobristKey = zobristKey;
+    }
+
+    @Override
+    public long getBitboard(Piece.Color color, Piece.Type type) {
+        return pieceBitboards[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    @Override
+    public long getOccupancy(Piece.Color color) {
+        return color == Piece.Color.WHITE ? whitePieces : blackPieces;
+    }
+
+    @Override
+    public long getOccupied() {
+        return whitePieces | blackPieces;
+    }
+
+    @Override
+    public Piece.Type getPieceType(int square) {
+        long mask = 1L << square;
+        for (int index = 0; index < pieceBitboards.length; index++) {
+            if ((pieceBitboards[index] & mask) != 0) {
+                return Piece.Type.values()[index % 6];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Piece.Color getPieceColor(int square) {
+        long mask = 1L << square;
+        if ((whitePieces & mask) != 0) {
+            return Piece.Color.WHITE;
+        }
+        return (blackPieces & mask) != 0 ? Piece.Color.BLACK : null;
+    }
+
+    @Override
+    public int getKingSquare(Piece.Color color) {
+        long king = getBitboard(color, Piece.Type.KING);
+        return king == 0 ? Board.NO_SQUARE : Long.numberOfTrailingZeros(king);
+    }
+
+    @Override
+    public Piece.Color getSideToMove() {
+        return sideToMove;
+    }
+
+    @Override
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    @Override
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    @Override
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public boolean isSquareAttacked(int square, Piece.Color attackerColor) {
+        return Attacks.isSquareAttacked(this, square, attackerColor, getOccupied(), 0L);
+    }
+
+    @Override
+    public Position snapshot() {
+        return this;
+    }
+
+    /**
+     * Returns the position after a move, leaving this one untouched.
+     * Like Board.makeMove, the move is assumed to be legal.
+     *
+     * @param move The packed move to play (see {@link PackedMove}).
+     * @return A new Position with the move played.
+     */
+    public Position play(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece.Color us = sideToMove;
+        Piece.Color them = us == Piece.Color.WHITE ? Piece.Color.BLACK : Piece.Color.WHITE;
+        int ourBase = us.ordinal() * 6;
+        int theirBase = them.ordinal() * 6;
+        Piece.Type moved = getPieceType(from);
+
+        long[] bitboards = pieceBitboards.clone();
+        long key = zobristKey;
+
+        // En passant captures the pawn beside the start square, not on the destination
+        int capturedSquare = PackedMove.isEnPassant(move) ? Board.toSquare(Board.fileOf(to), Board.rankOf(from)) : to;
+        Piece.Type captured = (getOccupancy(them) & (1L << capturedSquare)) != 0 ? getPieceType(capturedSquare) : null;
+        if (captured != null) {
+            bitboards[theirBase + captured.ordinal()] &= ~(1L << capturedSquare);
+            key ^= Zobrist.piece(them, captured, capturedSquare);
+        }
+
+        Piece.Type placed = PackedMove.isPromotion(move) ? PackedMove.promotionType(move) : moved;
+        bitboards[ourBase + moved.ordinal()] &= ~(1L << from);
+        bitboards[ourBase + placed.ordinal()] |= 1L << to;
+        key ^= Zobrist.piece(us, moved, from) ^ Zobrist.piece(us, placed, to);
+
+        if (PackedMove.isCastling(move)) {
+            int rookFrom = Board.castlingRookFrom(move);
+            int rookTo = Board.castlingRookTo(move);
+            bitboards[ourBase + Piece.Type.ROOK.ordinal()] ^= (1L << rookFrom) | (1L << rookTo);
+            key ^= Zobrist.piece(us, Piece.Type.ROOK, rookFrom) ^ Zobrist.piece(us, Piece.Type.ROOK, rookTo);
+        }
+
+        int rights = castlingRights & CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+
+        // As on Board, only remember the en passant square if an enemy pawn can capture onto it
+        key ^= Zobrist.enPassant(enPassantSquare);
+        int newEnPassantSquare = Board.NO_SQUARE;
+        if (PackedMove.isDoublePawnPush(move)) {
+            int skipped = (from + to) / 2;
+            if ((Attacks.pawnAttacks(us, skipped) & bitboards[theirBase + Piece.Type.PAWN.ordinal()]) != 0) {
+                newEnPassantSquare = skipped;
+                key ^= Zobrist.enPassant(newEnPassantSquare);
+            }
+        }
+
+        int newHalfmoveClock = (moved == Piece.Type.PAWN || captured != null) ? 0 : halfmoveClock + 1;
+        key ^= Zobrist.blackToMove();
+        return new Position(bitboards, them, rights, newEnPassantSquare, newHalfmoveClock, key);
+    }
+
+    /**
+     * Builds a new, independent Board holding this position. Pawns off their
+     * starting rank and Kings and Rooks without castling rights are marked as
+     * moved, so the board derives the same castling rights.
+     */
+    public Board toBoard() {
+        Board board = Board.createEmpty();
+        for (int index = 0; index < pieceBitboards.length; index++) {
+            Piece.Color color = Piece.Color.values()[index / 6];
+            Piece.Type type = Piece.Type.values()[index % 6];
+            long pieces = pieceBitboards[index];
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                Point point = Board.pointOf(square);
+                Piece piece = Board.createPiece(type, color, point);
+                if (piece instanceof Pawn) {
+                    ((Pawn) piece).setHasMoved(point.y != (color == Piece.Color.WHITE ? 6 : 1));
+                } else if (piece instanceof King) {
+                    ((King) piece).setHasMoved(!hasCastlingRight(color, Board.WHITE_KINGSIDE | Board.WHITE_QUEENSIDE));
+                } else if (piece instanceof Rook) {
+                    ((Rook) piece).setHasMoved(!hasRookCastlingRight(color, square));
+                }
+                board.setPiece(point, piece);
+            }
+        }
+        board.setSideToMove(sideToMove);
+        board.setEnPassantSquare(enPassantSquare);
+        board.setHalfmoveClock(halfmoveClock);
+        board.refreshZobristKey(); // castling rights were applied to the pieces directly
+        return board;
+    }
+
+    // whiteRights is given in White's bits and shifted for Black
+    private boolean hasCastlingRight(Piece.Color color, int whiteRights) {
+        int rights = color == Piece.Color.WHITE ? whiteRights : whiteRights << 2;
+        return (castlingRights & rights) != 0;
+    }
+
+    private boolean hasRookCastlingRight(Piece.Color color, int square) {
+        int homeRow = color == Piece.Color.WHITE ? 7 : 0;
+        if (square == Board.toSquare(7, homeRow)) {
+            return hasCastlingRight(color, Board.WHITE_KINGSIDE);
+        }
+        if (square == Board.toSquare(0, homeRow)) {
+            return hasCastlingRight(color, Board.WHITE_QUEENSIDE);
+        }
+        return false;
+    }
+}
\ No newline at end of file
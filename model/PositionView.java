@@ -0,0 +1,49 @@
+package model;
+
+/**
+ * Read-only access to a chess position, as needed by move generation and
+ * validation. Implemented by the mutable {@link Board} and by the immutable
+ * {@link Position} snapshot; code written against this interface works on
+ * either, and on a Position it is safe to run from any number of threads.
+ * Squares use Board's indexing (index = y * 8 + x, a8 = 0, h1 = 63).
+ */
+public interface PositionView {
+    // Bitboard of all pieces of the given color and type
+    long getBitboard(Piece.Color color, Piece.Type type);
+
+    // Bitboard of all pieces of the given color
+    long getOccupancy(Piece.Color color);
+
+    // Bitboard of every occupied square
+    long getOccupied();
+
+    // Type of the piece on the square, or null if it is empty
+    Piece.Type getPieceType(int square);
+
+    // Color of the piece on the square, or null if it is empty
+    Piece.Color getPieceColor(int square);
+
+    // Square of the given side's King, or Board.NO_SQUARE if it is not on the board
+    int getKingSquare(Piece.Color color);
+
+    Piece.Color getSideToMove();
+
+    // A combination of the Board.WHITE_/BLACK_ KINGSIDE/QUEENSIDE bits
+    int getCastlingRights();
+
+    // Square a pawn skipped over with its last two-square push, or Board.NO_SQUARE
+    int getEnPassantSquare();
+
+    // Plies since the last capture or pawn move
+    int getHalfmoveClock();
+
+    long getZobristKey();
+
+    boolean isSquareAttacked(int square, Piece.Color attackerColor);
+
+    /**
+     * Returns an immutable snapshot of this position, which can be handed to
+     * other threads. A Position returns itself.
+     */
+    Position snapshot();
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of one
+ * key per piece on its square, plus keys for Black to move, the castling
+ * rights and the en passant file. Board keeps the XOR up to date as pieces move,
+ * so the hash of the current position is always available in O(1).
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_SQUARE = new long[12][64]; // [color * 6 + type][square]
+    private static final long[] CASTLING = new long[16];           // indexed by the castling rights bits
+    private static final long[] EN_PASSANT_FILE = new long[Board.SIZE];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        // Fixed seed so keys, and anything stored under them, are the same on every run
+        Random random = new Random(0x2F1B5A3C7D9E4F60L);
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < keys.length; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        // No rights at all hashes to 0, so a position without castling needs no extra XOR
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(Piece.Color color, Piece.Type type, int square) {
+        return PIECE_SQUARE[color.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int square) {
+        return square == Board.NO_SQUARE ? 0L : EN_PASSANT_FILE[Board.fileOf(square)];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package pgn;
+
+import model.Fen;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game as read from or written to PGN: its tag pairs, its moves as SAN
+ * tokens in the order played, and its result ("1-0", "0-1", "1/2-1/2" or
+ * "*"). Comments, variations and annotation glyphs are not kept.
+ */
+public final class PgnGame {
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final String result;
+
+    public PgnGame(Map<String, String> tags, List<String> moves, String result) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.moves = Collections.unmodifiableList(moves);
+        this.result = result;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    // The value of a tag pair, or null if the game does not have it
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public List<String> getMoves() {
+        return moves;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    // The position the moves start from: the FEN tag if there is one, otherwise the usual start
+    public String getStartingFen() {
+        String fen = tags.get("FEN");
+        return fen != null ? fen : Fen.STARTING_POSITION;
+    }
+}
\ No newline at end of file
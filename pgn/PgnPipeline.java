@@ -0,0 +1,292 @@
+package pgn;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Validates a PGN archive on several threads. Three stages are joined by
+ * bounded queues:
+ * <ol>
+ * <li>a reader thread splits the file into games with {@link PgnReader} and
+ *     hands them on in batches;</li>
+ * <li>worker threads replay each batch with their own {@link PgnReplayer};</li>
+ * <li>the calling thread collects the totals and passes illegal-move reports
+ *     to a sink.</li>
+ * </ol>
+ * When a queue is full its producer blocks, so a slow stage holds the others
+ * back and at most a few batches per worker are in memory at any time.
+ * Batching keeps queue traffic to one hand-off per batch rather than per game.
+ * Each stage tells the next it is done by sending an end marker.
+ *
+ * Usage: java pgn.PgnPipeline file.pgn [--threads N] [--batch N]
+ */
+public class PgnPipeline {
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    // Queue capacity in batches per worker: enough to keep every worker busy, no more
+    private static final int BATCHES_PER_WORKER = 4;
+
+    private static final Batch END_OF_GAMES = new Batch(0, Collections.emptyList());
+    private static final Outcome END_OF_OUTCOMES = new Outcome(0, 0, 0, Collections.emptyList());
+
+    private final int workers;
+    private final int batchSize;
+
+    public PgnPipeline(int workers, int batchSize) {
+        if (workers < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Need at least one worker and one game per batch");
+        }
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    /** Totals for one run. */
+    public static final class Summary {
+        private final long games;
+        private final long plies;
+        private final long illegalGames;
+        private final long elapsedNanos;
+
+        Summary(long games, long plies, long illegalGames, long elapsedNanos) {
+            this.games = games;
+            this.plies = plies;
+            this.illegalGames = illegalGames;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getPlies() {
+            return plies;
+        }
+
+        public long getIllegalGames() {
+            return illegalGames;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos > 0 ? games * 1_000_000_000.0 / elapsedNanos : 0.0;
+        }
+    }
+
+    // Games handed from the reader to a worker; firstGame numbers them from 1 for reports
+    private static final class Batch {
+        final long firstGame;
+        final List<PgnGame> games;
+
+        Batch(long firstGame, List<PgnGame> games) {
+            this.firstGame = firstGame;
+            this.games = games;
+        }
+    }
+
+    // What a worker found in one batch
+    private static final class Outcome {
+        final long games;
+        final long plies;
+        final long illegalGames;
+        final List<String> reports;
+
+        Outcome(long games, long plies, long illegalGames, List<String> reports) {
+            this.games = games;
+            this.plies = plies;
+            this.illegalGames = illegalGames;
+            this.reports = reports;
+        }
+    }
+
+    /**
+     * Replays every game in the file and returns the totals once all of them
+     * have been checked.
+     *
+     * @param path The PGN file.
+     * @param reports Receives one line per game with an illegal move or bad FEN,
+     *                on the calling thread, in the order workers finish them.
+     * @return The totals.
+     * @throws IOException if the file cannot be read.
+     * @throws InterruptedException if the calling thread is interrupted; the
+     *         pipeline's threads are stopped before this is thrown.
+     */
+    public Summary run(Path path, Consumer<String> reports) throws IOException, InterruptedException {
+        BlockingQueue<Batch> batches = new ArrayBlockingQueue<>(workers * BATCHES_PER_WORKER);
+        BlockingQueue<Outcome> outcomes = new ArrayBlockingQueue<>(workers * BATCHES_PER_WORKER);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 1, runnable -> {
+            Thread thread = new Thread(runnable, "pgn-pipeline-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long startTime = System.nanoTime();
+        try {
+            Future<Void> reader = executor.submit(() -> {
+                read(path, batches);
+                return null;
+            });
+            List<Future<Void>> validators = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                validators.add(executor.submit(() -> {
+                    validate(batches, outcomes);
+                    return null;
+                }));
+            }
+
+            long games = 0;
+            long plies = 0;
+            long illegalGames = 0;
+            int finishedWorkers = 0;
+            while (finishedWorkers < workers) {
+                Outcome outcome = outcomes.take();
+                if (outcome == END_OF_OUTCOMES) {
+                    finishedWorkers++;
+                    continue;
+                }
+                games += outcome.games;
+                plies += outcome.plies;
+                illegalGames += outcome.illegalGames;
+                outcome.reports.forEach(reports);
+            }
+
+            // A worker that died still sent its end marker; rethrow what killed it. Checked before the
+            // reader, which may be stuck on a full queue if every worker died
+            for (Future<Void> validator : validators) {
+                try {
+                    validator.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("PGN worker failed", e.getCause());
+                }
+            }
+            try {
+                reader.get(); // Rethrows a read failure
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IllegalStateException("PGN reader failed", e.getCause());
+            }
+            return new Summary(games, plies, illegalGames, System.nanoTime() - startTime);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Stage 1: cut the file into batches of games. Every worker gets an end marker,
+    // even if reading fails, so none of them waits forever.
+    private void read(Path path, BlockingQueue<Batch> batches) throws IOException, InterruptedException {
+        try (PgnReader reader = PgnReader.open(path)) {
+            long gameNumber = 1;
+            List<PgnGame> games = new ArrayList<>(batchSize);
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                games.add(game);
+                if (games.size() == batchSize) {
+                    batches.put(new Batch(gameNumber, games));
+                    gameNumber += games.size();
+                    games = new ArrayList<>(batchSize);
+                }
+            }
+            if (!games.isEmpty()) {
+                batches.put(new Batch(gameNumber, games));
+            }
+        } finally {
+            for (int i = 0; i < workers; i++) {
+                batches.put(END_OF_GAMES);
+            }
+        }
+    }
+
+    // Stage 2: replay batches until the end marker, then pass the marker on. The marker is sent
+    // even if a replay dies with an Error, so run() never waits for a worker that is gone.
+    private void validate(BlockingQueue<Batch> batches, BlockingQueue<Outcome> outcomes) throws InterruptedException {
+        PgnReplayer replayer = new PgnReplayer();
+        boolean shuttingDown = false;
+        try {
+            Batch batch;
+            while ((batch = batches.take()) != END_OF_GAMES) {
+                outcomes.put(replay(replayer, batch));
+            }
+        } catch (InterruptedException e) {
+            shuttingDown = true; // run() is shutting the pipeline down and reads no more outcomes
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!shuttingDown) {
+                outcomes.put(END_OF_OUTCOMES);
+            }
+        }
+    }
+
+    private static Outcome replay(PgnReplayer replayer, Batch batch) {
+        long plies = 0;
+        long illegalGames = 0;
+        List<String> reports = new ArrayList<>();
+        for (int i = 0; i < batch.games.size(); i++) {
+            long gameNumber = batch.firstGame + i;
+            try {
+                PgnReplayer.Result result = replayer.replay(batch.games.get(i));
+                plies += result.getPlies();
+                if (!result.isLegal()) {
+                    illegalGames++;
+                    reports.add("Game " + gameNumber + ": illegal move " + result.getIllegalMove()
+                            + " after " + result.getPlies() + " plies");
+                }
+            } catch (IllegalArgumentException e) {
+                illegalGames++; // A FEN tag that is not valid FEN
+                reports.add("Game " + gameNumber + ": " + e.getMessage());
+            } catch (RuntimeException e) {
+                // A bug in the rules rather than in the game; report it and keep the worker alive
+                illegalGames++;
+                reports.add("Game " + gameNumber + ": replay failed with " + e);
+            }
+        }
+        return new Outcome(batch.games.size(), plies, illegalGames, reports);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Usage: java pgn.PgnPipeline file.pgn [--threads N] [--batch N]");
+            return;
+        }
+        Path path = Paths.get(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batchSize = DEFAULT_BATCH_SIZE;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--batch":
+                    batchSize = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        Summary summary = new PgnPipeline(threads, batchSize).run(path, System.out::println);
+
+        double seconds = summary.getElapsedNanos() / 1_000_000_000.0;
+        System.out.println("Games: " + summary.getGames() + " (" + summary.getIllegalGames() + " with illegal moves)");
+        System.out.println("Plies: " + summary.getPlies());
+        System.out.println("Threads: " + threads);
+        System.out.printf("Time: %.3f s%n", seconds);
+        System.out.printf("Games/s: %.0f%n", summary.getGamesPerSecond());
+    }
+}
\ No newline at end of file
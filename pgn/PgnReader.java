@@ -0,0 +1,268 @@
+package pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads PGN games one at a time from a channel. Bytes are read into a fixed
+ * buffer and decoded as UTF-8 into a fixed character buffer, so memory use
+ * depends on the longest game, not on the size of the file.
+ * Comments ({...} and ; to end of line), variations, numeric annotation
+ * glyphs, move numbers and escape lines (starting with %) are skipped; the
+ * moves are returned as SAN tokens for {@link PgnReplayer} to resolve.
+ *
+ * <p>A reader is not thread-safe.
+ */
+public class PgnReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int EOF = -1;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder token = new StringBuilder();
+    private boolean endOfInput;
+    private boolean drained;
+    private int pushedBack = EOF;
+    private int previous = '\n';
+    private boolean atLineStart; // whether the character last returned by read() began a line
+    private long bytesRead;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        chars.flip(); // Start empty
+    }
+
+    public static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    // Bytes consumed from the channel so far, for progress reporting
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Reads the next game.
+     *
+     * @return The game, or null at the end of the input.
+     * @throws IOException if reading the channel fails.
+     */
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        boolean started = false;
+
+        int c;
+        while ((c = read()) != EOF) {
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (c == '%' && atLineStart) {
+                skipPast('\n'); // Escape line
+                continue;
+            }
+            switch (c) {
+                case '[':
+                    if (!moves.isEmpty()) {
+                        // Tags of the next game without a result for this one
+                        unread(c);
+                        return new PgnGame(tags, moves, "*");
+                    }
+                    readTag(tags);
+                    started = true;
+                    break;
+                case '{':
+                    skipPast('}');
+                    break;
+                case ';':
+                    skipPast('\n');
+                    break;
+                case '(':
+                    skipVariation();
+                    break;
+                default: // Including a '%' that does not start a line
+                    readToken(c);
+                    started = true;
+                    if (isResult(token)) {
+                        return new PgnGame(tags, moves, token.toString());
+                    }
+                    String move = stripMoveNumber(token);
+                    if (move != null) {
+                        moves.add(move);
+                    }
+                    break;
+            }
+        }
+        return started ? new PgnGame(tags, moves, "*") : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // [Name "value"], with \" and \\ escapes inside the value
+    private void readTag(Map<String, String> tags) throws IOException {
+        StringBuilder name = new StringBuilder();
+        int c = read();
+        while (c != EOF && Character.isWhitespace(c)) {
+            c = read();
+        }
+        while (c != EOF && !Character.isWhitespace(c) && c != '"' && c != ']') {
+            name.append((char) c);
+            c = read();
+        }
+        while (c != EOF && c != '"' && c != ']') {
+            c = read();
+        }
+        StringBuilder value = new StringBuilder();
+        if (c == '"') {
+            c = read();
+            while (c != EOF && c != '"') {
+                if (c == '\\') {
+                    c = read();
+                }
+                if (c != EOF) {
+                    value.append((char) c);
+                    c = read();
+                }
+            }
+            skipPast(']');
+        }
+        if (name.length() > 0) {
+            tags.put(name.toString(), value.toString());
+        }
+    }
+
+    // Reads a symbol token starting with c into the shared token buffer
+    private void readToken(int c) throws IOException {
+        token.setLength(0);
+        while (c != EOF && !Character.isWhitespace(c) && "{}();[]".indexOf(c) < 0) {
+            token.append((char) c);
+            c = read();
+        }
+        if (c != EOF) {
+            unread(c);
+        }
+    }
+
+    // Drops a leading move number ("12.", "12...", "12"), returning null if nothing else is left
+    // or the token is an annotation: a glyph ($5) or bare marks (!?)
+    private static String stripMoveNumber(StringBuilder token) {
+        int start = 0;
+        while (start < token.length() && Character.isDigit(token.charAt(start))) {
+            start++;
+        }
+        if (start < token.length() && start > 0 && token.charAt(start) != '.') {
+            start = 0; // Digits that are part of the move, as in "0-0"
+        }
+        while (start < token.length() && token.charAt(start) == '.') {
+            start++;
+        }
+        if (start == token.length() || token.charAt(start) == '$') {
+            return null;
+        }
+        boolean annotationOnly = true;
+        for (int i = start; i < token.length() && annotationOnly; i++) {
+            annotationOnly = token.charAt(i) == '!' || token.charAt(i) == '?';
+        }
+        return annotationOnly ? null : token.substring(start);
+    }
+
+    private static boolean isResult(StringBuilder token) {
+        return contentEquals(token, "1-0") || contentEquals(token, "0-1")
+                || contentEquals(token, "1/2-1/2") || contentEquals(token, "*");
+    }
+
+    private static boolean contentEquals(StringBuilder token, String text) {
+        return token.length() == text.length() && token.indexOf(text) == 0;
+    }
+
+    private void skipPast(char terminator) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != EOF && c != terminator);
+    }
+
+    // Variations nest, and may contain comments that mention parentheses
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = read()) != EOF) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';') {
+                skipPast('\n');
+            }
+        }
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != EOF) {
+            int c = pushedBack; // atLineStart still describes it
+            pushedBack = EOF;
+            return c;
+        }
+        if (!chars.hasRemaining() && !fill()) {
+            return EOF;
+        }
+        int c = chars.get();
+        atLineStart = previous == '\n';
+        previous = c;
+        return c;
+    }
+
+    // Refills the character buffer; returns false once everything has been read
+    private boolean fill() throws IOException {
+        if (drained) {
+            return false;
+        }
+        chars.clear();
+        while (chars.position() == 0) {
+            if (!endOfInput) {
+                int count = channel.read(bytes);
+                if (count < 0) {
+                    endOfInput = true;
+                } else {
+                    bytesRead += count;
+                }
+            }
+            bytes.flip();
+            decoder.decode(bytes, chars, endOfInput);
+            bytes.compact();
+            if (endOfInput) {
+                decoder.flush(chars);
+                drained = true;
+                break;
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+}
\ No newline at end of file
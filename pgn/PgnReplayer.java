@@ -0,0 +1,134 @@
+package pgn;
+
+import model.Board;
+import model.Fen;
+import model.MoveList;
+import model.PackedMove;
+import rules.ChessMoveValidator;
+import rules.MoveGenerator;
+import rules.SanNotation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Replays PGN games move by move, resolving each SAN token against the legal
+ * moves the generator (built on {@link ChessMoveValidator}) produces for the
+ * position, so every move in an archive is checked against the rules.
+ * Games are played on a Board rather than a Game, which would log every move
+ * and track clocks; the moves accepted are the same.
+ *
+ * <p>A replayer reuses its move list, so each thread needs its own.
+ *
+ * Usage: java pgn.PgnReplayer file.pgn
+ */
+public class PgnReplayer {
+    private final MoveGenerator moveGenerator = new MoveGenerator(new ChessMoveValidator());
+    private final MoveList legalMoves = new MoveList();
+
+    /** The outcome of replaying one game. */
+    public static final class Result {
+        private final PgnGame game;
+        private final Board board;
+        private final int plies;
+        private final String illegalMove;
+
+        Result(PgnGame game, Board board, int plies, String illegalMove) {
+            this.game = game;
+            this.board = board;
+            this.plies = plies;
+            this.illegalMove = illegalMove;
+        }
+
+        public PgnGame getGame() {
+            return game;
+        }
+
+        // The position after the last legal move
+        public Board getBoard() {
+            return board;
+        }
+
+        // Moves played before the end of the game or the first illegal move
+        public int getPlies() {
+            return plies;
+        }
+
+        public boolean isLegal() {
+            return illegalMove == null;
+        }
+
+        // The first SAN token that did not match exactly one legal move, or null
+        public String getIllegalMove() {
+            return illegalMove;
+        }
+    }
+
+    /**
+     * Plays through a game, stopping at the first move that is illegal or
+     * ambiguous in its position.
+     *
+     * @param game The game to replay.
+     * @return The outcome, including the final position.
+     * @throws IllegalArgumentException if the game's FEN tag is not valid FEN.
+     */
+    public Result replay(PgnGame game) {
+        Board board = Fen.toBoard(game.getStartingFen());
+        int plies = 0;
+        for (String san : game.getMoves()) {
+            legalMoves.clear();
+            moveGenerator.generateLegalMoves(board, legalMoves);
+            int move = SanNotation.parse(board, san, legalMoves);
+            if (move == PackedMove.NONE) {
+                return new Result(game, board, plies, san);
+            }
+            board.makeMove(move);
+            plies++;
+        }
+        return new Result(game, board, plies, null);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java pgn.PgnReplayer file.pgn");
+            return;
+        }
+        Path path = Paths.get(args[0]);
+        PgnReplayer replayer = new PgnReplayer();
+        long games = 0;
+        long plies = 0;
+        long illegalGames = 0;
+
+        long startTime = System.nanoTime();
+        try (PgnReader reader = PgnReader.open(path)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                Result result;
+                try {
+                    result = replayer.replay(game);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Game " + (games + 1) + ": " + e.getMessage());
+                    games++;
+                    illegalGames++;
+                    continue;
+                }
+                games++;
+                plies += result.getPlies();
+                if (!result.isLegal()) {
+                    illegalGames++;
+                    System.out.println("Game " + games + ": illegal move " + result.getIllegalMove()
+                            + " after " + result.getPlies() + " plies");
+                }
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.println("Games: " + games + " (" + illegalGames + " with illegal moves)");
+        System.out.println("Plies: " + plies);
+        System.out.printf("Time: %.3f s%n", seconds);
+        System.out.printf("Games/s: %.0f%n", seconds > 0 ? games / seconds : 0.0);
+        System.out.printf("Plies/s: %.0f%n", seconds > 0 ? plies / seconds : 0.0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,202 @@
+package pgn;
+
+import game.Game;
+import game.GameResult;
+import model.Board;
+import model.Fen;
+import model.Piece;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes games as PGN to a channel, encoding each game as UTF-8 through a
+ * fixed buffer. Tag pairs start with the seven-tag roster ("?" where a value
+ * is unknown) and movetext lines stay under 80 characters.
+ *
+ * <p>A writer is not thread-safe.
+ */
+public class PgnWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_LINE_LENGTH = 79;
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder text = new StringBuilder();
+
+    public PgnWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    public static PgnWriter open(Path path) throws IOException {
+        return new PgnWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Writes a game's moves so far. The Result tag and the result token come
+     * from the game's current state ("*" while it is in progress); a game
+     * started from FEN gets SetUp and FEN tags.
+     *
+     * @param game The game to write.
+     * @param tags Extra tag pairs such as Event or White; may be empty.
+     * @throws IOException if writing the channel fails.
+     */
+    public void write(Game game, Map<String, String> tags) throws IOException {
+        Map<String, String> allTags = new LinkedHashMap<>(tags);
+        String result = resultOf(game);
+        allTags.put("Result", result);
+        if (!game.getStartingFen().equals(Fen.STARTING_POSITION)) {
+            allTags.put("SetUp", "1");
+            allTags.put("FEN", game.getStartingFen());
+        }
+        write(new PgnGame(allTags, new ArrayList<>(game.getFormattedMoveHistory()), result));
+    }
+
+    /**
+     * Writes a game as read by {@link PgnReader} or built by the caller.
+     *
+     * @param game The game to write.
+     * @throws IOException if writing the channel fails.
+     */
+    public void write(PgnGame game) throws IOException {
+        text.setLength(0);
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? game.getResult() : game.getTag(name);
+            appendTag(name, value != null ? value : defaultValue(name));
+        }
+        for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            if (!isRosterTag(tag.getKey())) {
+                appendTag(tag.getKey(), tag.getValue());
+            }
+        }
+        text.append('\n');
+
+        // Move numbers follow on from the starting position
+        int moveNumber = 1;
+        boolean whiteToMove = true;
+        if (game.getTag("FEN") != null) {
+            Board start = Fen.toBoard(game.getStartingFen());
+            moveNumber = start.getFullmoveNumber();
+            whiteToMove = start.getSideToMove() == Piece.Color.WHITE;
+        }
+        int lineStart = text.length();
+        boolean first = true;
+        for (String move : game.getMoves()) {
+            String word = whiteToMove ? moveNumber + ". " + move
+                    : first ? moveNumber + "... " + move : move;
+            lineStart = appendWord(word, lineStart);
+            if (!whiteToMove) {
+                moveNumber++;
+            }
+            whiteToMove = !whiteToMove;
+            first = false;
+        }
+        appendWord(game.getResult(), lineStart);
+        text.append("\n\n");
+        encode();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // "1-0" if Black is mated or out of time, "0-1" if White is, "1/2-1/2" for any draw, "*" while the game goes on
+    private static String resultOf(Game game) {
+        GameResult result = game.getGameResult();
+        if (result == GameResult.IN_PROGRESS) {
+            return "*";
+        }
+        if (result == GameResult.CHECKMATE || result == GameResult.TIMEOUT) {
+            return game.getCurrentPlayerTurn() == Piece.Color.WHITE ? "0-1" : "1-0";
+        }
+        return "1/2-1/2";
+    }
+
+    private void appendTag(String name, String value) {
+        text.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                text.append('\\');
+            }
+            text.append(c);
+        }
+        text.append("\"]\n");
+    }
+
+    // Adds a word to the movetext, starting a new line when it would not fit; returns where the line starts
+    private int appendWord(String word, int lineStart) {
+        if (text.length() > lineStart) {
+            if (text.length() - lineStart + 1 + word.length() > MAX_LINE_LENGTH) {
+                text.append('\n');
+                lineStart = text.length();
+            } else {
+                text.append(' ');
+            }
+        }
+        text.append(word);
+        return lineStart;
+    }
+
+    private static String defaultValue(String name) {
+        return name.equals("Date") ? "????.??.??" : name.equals("Result") ? "*" : "?";
+    }
+
+    private static boolean isRosterTag(String name) {
+        for (String rosterTag : SEVEN_TAG_ROSTER) {
+            if (rosterTag.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Encodes the text into the byte buffer, writing the buffer out whenever it fills up
+    private void encode() throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, true);
+            if (result.isOverflow()) {
+                flush();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            flush();
+        }
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package pieces;
 
+import model.Attacks;
 import model.Board;
 import model.Piece;
 import java.awt.Point;
@@ -11,27 +12,13 @@ public class Bishop extends Piece {
 
     @Override
     public boolean isValidMove(Point newPosition, Board board) {
-        int dx = newPosition.x - getPosition().x;
-        int dy = newPosition.y - getPosition().y;
-
-        // Bishop moves diagonally
-        if (Math.abs(dx) != Math.abs(dy)) {
-            return false; // Not a diagonal move
+        if (!board.isValidPosition(newPosition)) {
+            return false;
         }
-
-        // Check for obstructions
-        int stepX = (dx > 0) ? 1 : -1;
-        int stepY = (dy > 0) ? 1 : -1;
-
-        int currentX = getPosition().x + stepX;
-        int currentY = getPosition().y + stepY;
-
-        while (currentX != newPosition.x || currentY != newPosition.y) {
-            if (board.getPiece(new Point(currentX, currentY)) != null) {
-                return false; // Obstruction
-            }
-            currentX += stepX;
-            currentY += stepY;
+        // Squares along the bishop's diagonals up to and including the first piece in each direction
+        long reachable = Attacks.bishopAttacks(Board.toSquare(getPosition()), board.getOccupied());
+        if ((reachable & (1L << Board.toSquare(newPosition))) == 0) {
+            return false; // Not on a ray, or blocked before reaching it
         }
 
         Piece pieceAtNewPos = board.getPiece(newPosition);
@@ -42,4 +29,9 @@ public class Bishop extends Piece {
     public String getSymbol() {
         return getColor() == Color.WHITE ? "B" : "b";
     }
+
+    @Override
+    public Type getType() {
+        return Type.BISHOP;
+    }
 }
\ No newline at end of file
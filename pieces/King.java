@@ -48,4 +48,9 @@ public class King extends Piece {
     public String getSymbol() {
         return getColor() == Color.WHITE ? "K" : "k";
     }
+
+    @Override
+    public Type getType() {
+        return Type.KING;
+    }
 }
\ No newline at end of file
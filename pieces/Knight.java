@@ -26,4 +26,9 @@ public class Knight extends Piece {
     public String getSymbol() {
         return getColor() == Color.WHITE ? "N" : "n";
     }
+
+    @Override
+    public Type getType() {
+        return Type.KNIGHT;
+    }
 }
\ No newline at end of file
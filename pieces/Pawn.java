@@ -37,8 +37,7 @@ public class Pawn extends Piece {
         // 2. Two squares forward (initial move)
         if (!hasMoved && dx == 0 && dy == 2 * forwardDirection && getPosition().y == startRow) {
             // Check if both squares are empty
-            Point intermediatePos = new Point(getPosition().x, getPosition().y + forwardDirection);
-            return board.getPiece(intermediatePos) == null && pieceAtNewPos == null;
+            return !board.isOccupied(getPosition().x, getPosition().y + forwardDirection) && pieceAtNewPos == null;
         }
 
         // 3. Diagonal capture (regular)
@@ -57,4 +56,9 @@ public class Pawn extends Piece {
     public String getSymbol() {
         return getColor() == Color.WHITE ? "P" : "p";
     }
+
+    @Override
+    public Type getType() {
+        return Type.PAWN;
+    }
 }
\ No newline at end of file
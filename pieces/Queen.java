@@ -1,5 +1,6 @@
 package pieces;
 
+import model.Attacks;
 import model.Board;
 import model.Piece;
 import java.awt.Point;
@@ -11,48 +12,13 @@ public class Queen extends Piece {
 
     @Override
     public boolean isValidMove(Point newPosition, Board board) {
-        int dx = newPosition.x - getPosition().x;
-        int dy = newPosition.y - getPosition().y;
-
-        // Queen combines Rook and Bishop moves
-        boolean isStraight = (dx == 0 && dy != 0) || (dx != 0 && dy == 0);
-        boolean isDiagonal = (Math.abs(dx) == Math.abs(dy) && dx != 0);
-
-        if (!isStraight && !isDiagonal) {
-            return false; // Not a valid Queen move pattern
+        if (!board.isValidPosition(newPosition)) {
+            return false;
         }
-
-        // Check for obstructions (similar to Rook and Bishop)
-        if (isStraight) { // Horizontal or vertical
-            if (dx != 0) { // Horizontal movement
-                int stepX = (dx > 0) ? 1 : -1;
-                for (int x = getPosition().x + stepX; x != newPosition.x; x += stepX) {
-                    if (board.getPiece(new Point(x, getPosition().y)) != null) {
-                        return false; // Obstruction
-                    }
-                }
-            } else { // Vertical movement
-                int stepY = (dy > 0) ? 1 : -1;
-                for (int y = getPosition().y + stepY; y != newPosition.y; y += stepY) {
-                    if (board.getPiece(new Point(getPosition().x, y)) != null) {
-                        return false; // Obstruction
-                    }
-                }
-            }
-        } else { // Diagonal
-            int stepX = (dx > 0) ? 1 : -1;
-            int stepY = (dy > 0) ? 1 : -1;
-
-            int currentX = getPosition().x + stepX;
-            int currentY = getPosition().y + stepY;
-
-            while (currentX != newPosition.x || currentY != newPosition.y) {
-                if (board.getPiece(new Point(currentX, currentY)) != null) {
-                    return false; // Obstruction
-                }
-                currentX += stepX;
-                currentY += stepY;
-            }
+        // Queen combines Rook and Bishop moves: its rays stop at the first piece in each direction
+        long reachable = Attacks.queenAttacks(Board.toSquare(getPosition()), board.getOccupied());
+        if ((reachable & (1L << Board.toSquare(newPosition))) == 0) {
+            return false; // Not on a ray, or blocked before reaching it
         }
 
         Piece pieceAtNewPos = board.getPiece(newPosition);
@@ -63,4 +29,9 @@ public class Queen extends Piece {
     public String getSymbol() {
         return getColor() == Color.WHITE ? "Q" : "q";
     }
+
+    @Override
+    public Type getType() {
+        return Type.QUEEN;
+    }
 }
\ No newline at end of file
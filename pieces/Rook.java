@@ -1,5 +1,6 @@
 package pieces;
 
+import model.Attacks;
 import model.Board;
 import model.Piece;
 import java.awt.Point;
@@ -22,29 +23,13 @@ public class Rook extends Piece {
 
     @Override
     public boolean isValidMove(Point newPosition, Board board) {
-        int dx = newPosition.x - getPosition().x;
-        int dy = newPosition.y - getPosition().y;
-
-        // Rook moves horizontally or vertically
-        if (dx != 0 && dy != 0) {
-            return false; // Cannot move diagonally
+        if (!board.isValidPosition(newPosition)) {
+            return false;
         }
-
-        // Check for obstructions
-        if (dx != 0) { // Horizontal movement
-            int stepX = (dx > 0) ? 1 : -1;
-            for (int x = getPosition().x + stepX; x != newPosition.x; x += stepX) {
-                if (board.getPiece(new Point(x, getPosition().y)) != null) {
-                    return false; // Obstruction
-                }
-            }
-        } else if (dy != 0) { // Vertical movement
-            int stepY = (dy > 0) ? 1 : -1;
-            for (int y = getPosition().y + stepY; y != newPosition.y; y += stepY) {
-                if (board.getPiece(new Point(getPosition().x, y)) != null) {
-                    return false; // Obstruction
-                }
-            }
+        // Squares along the rook's ranks and files up to and including the first piece in each direction
+        long reachable = Attacks.rookAttacks(Board.toSquare(getPosition()), board.getOccupied());
+        if ((reachable & (1L << Board.toSquare(newPosition))) == 0) {
+            return false; // Not on a ray, or blocked before reaching it
         }
 
         Piece pieceAtNewPos = board.getPiece(newPosition);
@@ -55,4 +40,9 @@ public class Rook extends Piece {
     public String getSymbol() {
         return getColor() == Color.WHITE ? "R" : "r";
     }
+
+    @Override
+    public Type getType() {
+        return Type.ROOK;
+    }
 }
\ No newline at end of file
@@ -2,7 +2,10 @@ package rules;
 
 import model.Board;
 import model.Move;
+import model.MoveList;
+import model.PackedMove;
 import model.Piece;
+import model.PositionView;
 import pieces.*;
 import java.awt.Point;
 import java.util.ArrayList;
@@ -41,7 +44,8 @@ public class ChessMoveValidator implements MoveValidator {
                 // If diagonal move to an empty square, it must be en passant
                 if (pieceAtEnd == null) {
                     if (isValidEnPassant(board, move, lastOpponentMove)) {
-                        return true;
+                        // Removing both pawns from the rank can still expose the king
+                        return !leavesKingInCheck(board, move, piece.getColor());
                     }
                 }
             }
@@ -103,7 +107,7 @@ public class ChessMoveValidator implements MoveValidator {
 
         // Path between King and Rook must be empty
         for (int x = start.x + step; x != rookCol; x += step) {
-            if (board.getPiece(new Point(x, kingRow)) != null) {
+            if (board.isOccupied(x, kingRow)) {
                 return false; // Obstruction
             }
         }
@@ -113,23 +117,12 @@ public class ChessMoveValidator implements MoveValidator {
             return false; // Cannot castle out of check
         }
 
-        // Check squares king passes through and lands on
-        Point[] squaresToCheck = new Point[3];
-        squaresToCheck[0] = start; // King's current square
-        squaresToCheck[1] = new Point(start.x + step, kingRow); // Square king passes through
-        squaresToCheck[2] = new Point(start.x + 2 * step, kingRow); // King's destination square
-
-        for (Point p : squaresToCheck) {
-            Board tempBoard = board.copy();
-            // Simulate moving the king to 'p' (temporarily, just to check for check)
-            Piece kingOnTempBoard = tempBoard.getPiece(start);
-            if (kingOnTempBoard == null) return false; // Should not happen
-
-            tempBoard.setPiece(p, kingOnTempBoard);
-            tempBoard.setPiece(start, null);
-            kingOnTempBoard.setPosition(p); // Temporarily update position for check test
-
-            if (isKingInCheck(tempBoard, kingColor)) {
+        // Check squares king passes through and lands on. The king never shields these
+        // squares from an attacker without already being in check itself, so the
+        // attack test can run with the king still on its start square.
+        Piece.Color opponentColor = (kingColor == Piece.Color.WHITE) ? Piece.Color.BLACK : Piece.Color.WHITE;
+        for (int i = 1; i <= 2; i++) {
+            if (board.isSquareAttacked(Board.toSquare(start.x + i * step, kingRow), opponentColor)) {
                 return false; // King passes through or lands in check
             }
         }
@@ -147,8 +140,14 @@ public class ChessMoveValidator implements MoveValidator {
             return false;
         }
 
+        // A game set up from FEN has no last move; the board's en passant square says the same thing
+        if (lastOpponentMove == null) {
+            return board.getEnPassantSquare() == Board.toSquare(end)
+                    && board.getSideToMove() == currentPawn.getColor();
+        }
+
         // Check if the last opponent move was a two-square pawn move
-        if (lastOpponentMove == null || !(lastOpponentMove.getPieceMoved() instanceof Pawn)) {
+        if (!(lastOpponentMove.getPieceMoved() instanceof Pawn)) {
             return false;
         }
         Pawn opponentPawn = (Pawn) lastOpponentMove.getPieceMoved();
@@ -183,115 +182,38 @@ public class ChessMoveValidator implements MoveValidator {
 
 
     @Override
-    public boolean isKingInCheck(Board board, Piece.Color kingColor) {
-        Point kingPosition = findKingPosition(board, kingColor);
-        if (kingPosition == null) {
+    public boolean isKingInCheck(PositionView board, Piece.Color kingColor) {
+        int kingSquare = board.getKingSquare(kingColor);
+        if (kingSquare == Board.NO_SQUARE) {
             // This should ideally not happen in a correctly initialized game
             // Or it signifies the king has been captured (game over)
             return false;
         }
 
         Piece.Color opponentColor = (kingColor == Piece.Color.WHITE) ? Piece.Color.BLACK : Piece.Color.WHITE;
+        return board.isSquareAttacked(kingSquare, opponentColor);
+    }
 
-        // Iterate through all squares on the board
-        for (int x = 0; x < Board.SIZE; x++) {
-            for (int y = 0; y < Board.SIZE; y++) {
-                Piece opponentPiece = board.getPiece(new Point(x, y));
-                if (opponentPiece != null && opponentPiece.getColor() == opponentColor) {
-                    // Check if this opponent piece can move to the king's position
-                    // For pawns, a simple isValidMove won't work for capture checking
-                    // as it considers empty squares directly ahead.
-                    // Special handling for pawns is needed here.
-                    if (opponentPiece instanceof Pawn) {
-                        Pawn opponentPawn = (Pawn) opponentPiece;
-                        int forwardDirection = (opponentPawn.getColor() == Piece.Color.WHITE) ? -1 : 1;
-                        if (Math.abs(kingPosition.x - opponentPiece.getPosition().x) == 1 &&
-                            (kingPosition.y - opponentPiece.getPosition().y) == forwardDirection) {
-                            return true; // Pawn can capture the king diagonally
-                        }
-                    } else if (opponentPiece.isValidMove(kingPosition, board)) {
-                        // For other pieces, isValidMove already checks for obstructions and target validity
-                        return true;
-                    }
-                }
-            }
+    @Override
+    public boolean isLegalMove(PositionView position, int move) {
+        int from = PackedMove.from(move);
+        if (position.getPieceColor(from) != position.getSideToMove()) {
+            return false;
         }
-        return false;
+        // Only the moving piece's moves need generating
+        MoveList moves = new MoveList();
+        new MoveGenerator(this).generateLegalMoves(position, from, moves);
+        return moves.contains(move);
     }
 
     @Override
     public boolean leavesKingInCheck(Board board, Move move, Piece.Color kingColor) {
-        // Create a temporary board to simulate the move
-        Board tempBoard = board.copy();
-        Piece movedPiece = tempBoard.getPiece(move.getStart());
-
-        if (movedPiece == null) return true; // Should not happen if a piece is supposed to be moved
-
-        // Perform the move on the temporary board
-        tempBoard.setPiece(move.getEnd(), movedPiece);
-        tempBoard.setPiece(move.getStart(), null);
-        movedPiece.setPosition(move.getEnd()); // Update piece's temp position
-
-        // Handle en passant capture on temp board
-        if (move.isEnPassant()) {
-            // The captured pawn is on a different square
-            Point capturedPawnPos = new Point(move.getEnd().x, move.getStart().y);
-            tempBoard.setPiece(capturedPawnPos, null);
-        }
+        if (board.getPiece(move.getStart()) == null) return true; // Should not happen if a piece is supposed to be moved
 
-        // Handle castling rook move on temp board
-        if (move.isCastling()) {
-            // Find the rook and move it on the temp board
-            int kingRow = kingColor == Piece.Color.WHITE ? 7 : 0;
-            Rook rookToMove;
-            Point rookStart;
-            Point rookEnd;
-
-            if (move.getEnd().x == 6) { // King-side castling
-                rookStart = new Point(7, kingRow);
-                rookEnd = new Point(5, kingRow);
-            } else { // Queen-side castling
-                rookStart = new Point(0, kingRow);
-                rookEnd = new Point(3, kingRow);
-            }
-            rookToMove = (Rook) tempBoard.getPiece(rookStart);
-            if (rookToMove != null) {
-                tempBoard.setPiece(rookEnd, rookToMove);
-                tempBoard.setPiece(rookStart, null);
-                rookToMove.setPosition(rookEnd);
-            }
-        }
-
-        // If it's a promotion move, the pawn on the temp board will be replaced by the promoted piece
-        if (move.isPromotion()) {
-            // The movedPiece (pawn) has already been placed at move.getEnd()
-            // Now replace it with the new promoted piece type.
-            Piece promotedPiece = null;
-            if (move.getPromotedPieceType() instanceof Queen) {
-                promotedPiece = new Queen(kingColor, move.getEnd());
-            } else if (move.getPromotedPieceType() instanceof Rook) {
-                promotedPiece = new Rook(kingColor, move.getEnd());
-            } else if (move.getPromotedPieceType() instanceof Bishop) {
-                promotedPiece = new Bishop(kingColor, move.getEnd());
-            } else if (move.getPromotedPieceType() instanceof Knight) {
-                promotedPiece = new Knight(kingColor, move.getEnd());
-            }
-            tempBoard.setPiece(move.getEnd(), promotedPiece);
-        }
-
-        // Check if the current player's king is in check on the temporary board
-        return isKingInCheck(tempBoard, kingColor);
-    }
-
-    private Point findKingPosition(Board board, Piece.Color kingColor) {
-        for (int x = 0; x < Board.SIZE; x++) {
-            for (int y = 0; y < Board.SIZE; y++) {
-                Piece piece = board.getPiece(new Point(x, y));
-                if (piece instanceof King && piece.getColor() == kingColor) {
-                    return new Point(x, y);
-                }
-            }
-        }
-        return null; // King not found (implies an error or game over already)
+        // Play the move in place, look at the king, then take it back
+        board.makeMove(move);
+        boolean inCheck = isKingInCheck(board, kingColor);
+        board.unmakeMove();
+        return inCheck;
     }
 }
\ No newline at end of file
@@ -0,0 +1,335 @@
+package rules;
+
+import model.Attacks;
+import model.Board;
+import model.Move;
+import model.MoveList;
+import model.PackedMove;
+import model.Piece;
+import model.PositionView;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates moves from each piece's attack set, so only destinations the
+ * piece can actually reach are ever considered. Moves are produced as packed
+ * ints (see {@link PackedMove}) into a reusable {@link MoveList}; the
+ * List&lt;Move&gt; methods convert the result for UI code.
+ * Legal moves are generated directly rather than filtered: checkers and
+ * pinned pieces are found once per position and restrict where each piece may
+ * go, so no move is ever tried on the board. The packed methods accept any {@link PositionView},
+ * and a generator has no state of its own, so many threads can generate moves
+ * for the same {@link model.Position} snapshot at once.
+ */
+public class MoveGenerator {
+    private static final Piece.Type[] PROMOTION_TYPES = {
+        Piece.Type.QUEEN, Piece.Type.ROOK, Piece.Type.BISHOP, Piece.Type.KNIGHT
+    };
+
+    private final MoveValidator moveValidator;
+
+    public MoveGenerator(MoveValidator moveValidator) {
+        this.moveValidator = moveValidator;
+    }
+
+    /**
+     * Returns every legal move for the given side.
+     *
+     * @param board The current state of the chess board.
+     * @param color The side to generate moves for.
+     * @return A list of legal moves, with one entry per promotion choice.
+     */
+    public List<Move> generateLegalMoves(Board board, Piece.Color color) {
+        MoveList moves = new MoveList();
+        generateLegalMoves(board, color, ~0L, moves);
+        return toMoves(moves, board);
+    }
+
+    /**
+     * Returns every legal move for the piece standing on the given square.
+     *
+     * @param board The current state of the chess board.
+     * @param start The square of the piece to move.
+     * @return A list of legal moves, empty if the square is empty.
+     */
+    public List<Move> generateLegalMoves(Board board, Point start) {
+        Piece piece = board.getPiece(start);
+        if (piece == null) {
+            return new ArrayList<>();
+        }
+        MoveList moves = new MoveList();
+        generateLegalMoves(board, piece.getColor(), 1L << Board.toSquare(start), moves);
+        return toMoves(moves, board);
+    }
+
+    /**
+     * Returns the moves each piece of the given side can make by its movement
+     * pattern, including castling, en passant and all four promotion choices,
+     * without checking whether the King is left in check.
+     * En passant is taken from the board's en passant square.
+     */
+    public List<Move> generatePseudoLegalMoves(Board board, Piece.Color color) {
+        MoveList moves = new MoveList();
+        generatePseudoLegalMoves(board, color, ~0L, moves);
+        return toMoves(moves, board);
+    }
+
+    /**
+     * Appends the legal moves of the side to move to the given list.
+     *
+     * @param board The position to generate moves for; only read.
+     * @param moves The list to append packed moves to.
+     */
+    public void generateLegalMoves(PositionView board, MoveList moves) {
+        generateLegalMoves(board, board.getSideToMove(), ~0L, moves);
+    }
+
+    /**
+     * Appends the legal moves of the side to move's piece on the given square.
+     * Nothing is added if the square is empty or holds an opponent's piece.
+     */
+    public void generateLegalMoves(PositionView board, int fromSquare, MoveList moves) {
+        generateLegalMoves(board, board.getSideToMove(), 1L << fromSquare, moves);
+    }
+
+    /**
+     * Appends the pseudo-legal moves of the side to move to the given list.
+     */
+    public void generatePseudoLegalMoves(PositionView board, MoveList moves) {
+        generatePseudoLegalMoves(board, board.getSideToMove(), ~0L, moves);
+    }
+
+    // Works out the checkers and the pinned pieces once, then only generates
+    // moves that are legal: the King steps to squares no enemy attacks, every
+    // other move must capture the checker or block its ray when in check, and
+    // a pinned piece stays on the line through its King. En passant is the one
+    // move checked individually, since removing two pawns from the same rank
+    // can uncover an attack no pin test sees.
+    private void generateLegalMoves(PositionView board, Piece.Color color, long fromMask, MoveList moves) {
+        int kingSquare = board.getKingSquare(color);
+        if (kingSquare == Board.NO_SQUARE) {
+            generatePseudoLegalMoves(board, color, fromMask, moves); // Nothing can be left in check
+            return;
+        }
+        Piece.Color opponentColor = (color == Piece.Color.WHITE) ? Piece.Color.BLACK : Piece.Color.WHITE;
+        long occupied = board.getOccupied();
+        long own = board.getOccupancy(color);
+        long kingBit = 1L << kingSquare;
+        long checkers = Attacks.attackersTo(board, kingSquare, opponentColor, occupied);
+
+        if ((fromMask & kingBit) != 0) {
+            // The King is lifted off the board first, so it cannot shelter behind itself on a checking ray
+            long withoutKing = occupied & ~kingBit;
+            long enemies = board.getOccupancy(opponentColor);
+            long destinations = Attacks.kingAttacks(kingSquare) & ~own;
+            while (destinations != 0) {
+                int to = Long.numberOfTrailingZeros(destinations);
+                destinations &= destinations - 1;
+                if (!Attacks.isSquareAttacked(board, to, opponentColor, withoutKing, 1L << to)) {
+                    boolean isCapture = (enemies & (1L << to)) != 0;
+                    moves.add(PackedMove.encode(kingSquare, to, isCapture ? PackedMove.CAPTURE : PackedMove.QUIET));
+                }
+            }
+            if (checkers == 0) {
+                generateCastlingMoves(board, color, opponentColor, kingSquare, occupied, moves);
+            }
+        }
+
+        if ((checkers & (checkers - 1)) != 0) {
+            return; // Double check: only the King can move
+        }
+        long targets = ~own;
+        if (checkers != 0) {
+            targets &= checkers | Attacks.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+        }
+        long pinned = pinnedPieces(board, color, opponentColor, kingSquare, occupied);
+        generatePieceMoves(board, color, fromMask, targets, pinned, kingSquare, moves);
+    }
+
+    // Own pieces that are the only thing standing between the King and an enemy slider on the same line
+    private long pinnedPieces(PositionView board, Piece.Color color, Piece.Color opponentColor, int kingSquare, long occupied) {
+        long enemies = board.getOccupancy(opponentColor);
+        long queens = board.getBitboard(opponentColor, Piece.Type.QUEEN);
+        // Looking through our own pieces finds every enemy slider that could pin one
+        long snipers = (Attacks.rookAttacks(kingSquare, enemies)
+                        & (board.getBitboard(opponentColor, Piece.Type.ROOK) | queens))
+                | (Attacks.bishopAttacks(kingSquare, enemies)
+                        & (board.getBitboard(opponentColor, Piece.Type.BISHOP) | queens));
+        long own = board.getOccupancy(color);
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(kingSquare, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    // En passant is the only move tested by updating the occupancy masks, as
+    // the captured pawn is not on the destination square
+    private boolean leavesKingInCheck(PositionView board, Piece.Color color, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        long captured = 1L << Board.toSquare(Board.fileOf(to), Board.rankOf(from));
+        long occupied = (board.getOccupied() & ~(1L << from) & ~captured) | (1L << to);
+        Piece.Color opponentColor = (color == Piece.Color.WHITE) ? Piece.Color.BLACK : Piece.Color.WHITE;
+        return Attacks.isSquareAttacked(board, board.getKingSquare(color), opponentColor, occupied, captured);
+    }
+
+    private void generatePseudoLegalMoves(PositionView board, Piece.Color color, long fromMask, MoveList moves) {
+        Piece.Color opponentColor = (color == Piece.Color.WHITE) ? Piece.Color.BLACK : Piece.Color.WHITE;
+        long targets = ~board.getOccupancy(color);
+        generatePieceMoves(board, color, fromMask, targets, 0L, Board.NO_SQUARE, moves);
+
+        long king = board.getBitboard(color, Piece.Type.KING) & fromMask;
+        if (king != 0) {
+            int from = Long.numberOfTrailingZeros(king);
+            addMoves(from, Attacks.kingAttacks(from) & targets, board.getOccupancy(opponentColor), moves);
+            generateCastlingMoves(board, color, opponentColor, from, board.getOccupied(), moves);
+        }
+    }
+
+    // Moves of everything but the King, to squares in targets. Pinned pieces
+    // are further held to the line through kingSquare; a kingSquare of
+    // Board.NO_SQUARE means the caller is not checking legality.
+    private void generatePieceMoves(PositionView board, Piece.Color color, long fromMask, long targets,
+                                    long pinned, int kingSquare, MoveList moves) {
+        Piece.Color opponentColor = (color == Piece.Color.WHITE) ? Piece.Color.BLACK : Piece.Color.WHITE;
+        long occupied = board.getOccupied();
+        long enemies = board.getOccupancy(opponentColor);
+
+        generatePawnMoves(board, color, board.getBitboard(color, Piece.Type.PAWN) & fromMask, enemies, occupied,
+                targets, pinned, kingSquare, moves);
+
+        // A pinned Knight can never stay on its pin line
+        long knights = board.getBitboard(color, Piece.Type.KNIGHT) & fromMask & ~pinned;
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            addMoves(from, Attacks.knightAttacks(from) & targets, enemies, moves);
+        }
+
+        long queens = board.getBitboard(color, Piece.Type.QUEEN);
+        long diagonalSliders = (board.getBitboard(color, Piece.Type.BISHOP) | queens) & fromMask;
+        while (diagonalSliders != 0) {
+            int from = Long.numberOfTrailingZeros(diagonalSliders);
+            diagonalSliders &= diagonalSliders - 1;
+            long allowed = allowedTargets(from, targets, pinned, kingSquare);
+            addMoves(from, Attacks.bishopAttacks(from, occupied) & allowed, enemies, moves);
+        }
+
+        long straightSliders = (board.getBitboard(color, Piece.Type.ROOK) | queens) & fromMask;
+        while (straightSliders != 0) {
+            int from = Long.numberOfTrailingZeros(straightSliders);
+            straightSliders &= straightSliders - 1;
+            long allowed = allowedTargets(from, targets, pinned, kingSquare);
+            addMoves(from, Attacks.rookAttacks(from, occupied) & allowed, enemies, moves);
+        }
+    }
+
+    private static long allowedTargets(int from, long targets, long pinned, int kingSquare) {
+        return (pinned & (1L << from)) != 0 ? targets & Attacks.line(kingSquare, from) : targets;
+    }
+
+    private void addMoves(int from, long destinations, long enemies, MoveList moves) {
+        while (destinations != 0) {
+            int to = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            boolean isCapture = (enemies & (1L << to)) != 0;
+            moves.add(PackedMove.encode(from, to, isCapture ? PackedMove.CAPTURE : PackedMove.QUIET));
+        }
+    }
+
+    private void generatePawnMoves(PositionView board, Piece.Color color, long pawns, long enemies, long occupied,
+                                   long targets, long pinned, int kingSquare, MoveList moves) {
+        // White moves towards y = 0, i.e. towards lower square indices
+        int forward = (color == Piece.Color.WHITE) ? -Board.SIZE : Board.SIZE;
+        int startRow = (color == Piece.Color.WHITE) ? 6 : 1;
+        int lastRank = (color == Piece.Color.WHITE) ? 0 : 7;
+        int enPassantSquare = board.getSideToMove() == color ? board.getEnPassantSquare() : Board.NO_SQUARE;
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long allowed = allowedTargets(from, targets, pinned, kingSquare);
+
+            // Forward pushes
+            int oneStep = from + forward;
+            if ((occupied & (1L << oneStep)) == 0) {
+                if ((allowed & (1L << oneStep)) != 0) {
+                    addPawnMove(from, oneStep, false, lastRank, moves);
+                }
+                int twoSteps = oneStep + forward;
+                if (Board.rankOf(from) == startRow && (occupied & (1L << twoSteps)) == 0
+                        && (allowed & (1L << twoSteps)) != 0) {
+                    moves.add(PackedMove.encode(from, twoSteps, PackedMove.DOUBLE_PAWN_PUSH));
+                }
+            }
+
+            // Diagonal captures
+            long attacks = Attacks.pawnAttacks(color, from);
+            long captures = attacks & enemies & allowed;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                addPawnMove(from, to, true, lastRank, moves);
+            }
+
+            // En passant: the board remembers the square the opponent's pawn just skipped over
+            if (enPassantSquare != Board.NO_SQUARE && (attacks & (1L << enPassantSquare)) != 0) {
+                int move = PackedMove.encode(from, enPassantSquare, PackedMove.EN_PASSANT);
+                if (kingSquare == Board.NO_SQUARE || !leavesKingInCheck(board, color, move)) {
+                    moves.add(move);
+                }
+            }
+        }
+    }
+
+    // Adds a single pawn move, or all four promotion choices when the pawn reaches the last rank
+    private void addPawnMove(int from, int to, boolean isCapture, int lastRank, MoveList moves) {
+        if (Board.rankOf(to) != lastRank) {
+            moves.add(PackedMove.encode(from, to, isCapture ? PackedMove.CAPTURE : PackedMove.QUIET));
+            return;
+        }
+        for (Piece.Type type : PROMOTION_TYPES) {
+            moves.add(PackedMove.encodePromotion(from, to, type, isCapture));
+        }
+    }
+
+    // Castling is only generated when the King is not in check and does not pass through an attacked square
+    private void generateCastlingMoves(PositionView board, Piece.Color color, Piece.Color opponentColor, int kingSquare,
+                                       long occupied, MoveList moves) {
+        int rights = board.getCastlingRights();
+        int kingsideRight = (color == Piece.Color.WHITE) ? Board.WHITE_KINGSIDE : Board.BLACK_KINGSIDE;
+        int queensideRight = (color == Piece.Color.WHITE) ? Board.WHITE_QUEENSIDE : Board.BLACK_QUEENSIDE;
+        if ((rights & (kingsideRight | queensideRight)) == 0 || moveValidator.isKingInCheck(board, color)) {
+            return;
+        }
+
+        // Castling rights imply the King is on its home square, so the path squares are kingSquare +/- n
+        if ((rights & kingsideRight) != 0
+                && (occupied & ((1L << (kingSquare + 1)) | (1L << (kingSquare + 2)))) == 0
+                && !board.isSquareAttacked(kingSquare + 1, opponentColor)
+                && !board.isSquareAttacked(kingSquare + 2, opponentColor)) {
+            moves.add(PackedMove.encode(kingSquare, kingSquare + 2, PackedMove.KING_CASTLE));
+        }
+        if ((rights & queensideRight) != 0
+                && (occupied & ((1L << (kingSquare - 1)) | (1L << (kingSquare - 2)) | (1L << (kingSquare - 3)))) == 0
+                && !board.isSquareAttacked(kingSquare - 1, opponentColor)
+                && !board.isSquareAttacked(kingSquare - 2, opponentColor)) {
+            moves.add(PackedMove.encode(kingSquare, kingSquare - 2, PackedMove.QUEEN_CASTLE));
+        }
+    }
+
+    private List<Move> toMoves(MoveList moves, Board board) {
+        List<Move> result = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            result.add(PackedMove.toMove(moves.get(i), board));
+        }
+        return result;
+    }
+}
\ No newline at end of file
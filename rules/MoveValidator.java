@@ -3,6 +3,7 @@ package rules;
 import model.Board;
 import model.Move;
 import model.Piece;
+import model.PositionView;
 import java.awt.Point;
 
 public interface MoveValidator {
@@ -21,11 +22,22 @@ public interface MoveValidator {
     /**
      * Checks if a given player's King is currently in check on the board.
      *
-     * @param board The current state of the chess board.
+     * @param board The current state of the chess board, or a snapshot of it.
      * @param kingColor The color of the King to check.
      * @return true if the King of the specified color is in check, false otherwise.
      */
-    boolean isKingInCheck(Board board, Piece.Color kingColor);
+    boolean isKingInCheck(PositionView board, Piece.Color kingColor);
+
+    /**
+     * Checks a packed move (see {@link model.PackedMove}) for the side to move,
+     * flags included, without modifying the position. Safe to call from
+     * several threads on the same {@link model.Position} snapshot.
+     *
+     * @param position The position the move would be played in.
+     * @param move The packed move.
+     * @return true if the move is legal in the position, false otherwise.
+     */
+    boolean isLegalMove(PositionView position, int move);
 
     /**
      * Checks if a proposed move would result in the current player's King
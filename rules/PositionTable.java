@@ -0,0 +1,193 @@
+package rules;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A fixed-size hash table of position results, keyed by the board's Zobrist
+ * key (which already covers the side to move, castling and en passant).
+ * It remembers, per position, the legal-move count and whether the side to
+ * move is in check (which together decide checkmate and stalemate), plus the
+ * best move, score, depth and bound found by any analysis.
+ *
+ * <p>The table is a single long[] shared by any number of threads without
+ * locks. Each entry is two longs: the packed data and the key XOR the data.
+ * A reader accepts an entry only if the two still XOR back to its key, so an
+ * entry torn by a concurrent writer is simply treated as a miss.
+ *
+ * <p>Buckets hold two entries: the first is only replaced by results of equal
+ * or greater depth, the second always takes the newest result so shallow
+ * positions still get cached.
+ */
+public class PositionTable {
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    /** Returned by {@link #probe} when the position is not in the table. */
+    public static final long MISS = 0L;
+
+    // Bound types: whether the stored score is exact or only a limit on the true score
+    public static final int BOUND_NONE = 0;
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2; // score >= stored (the search failed high)
+    public static final int BOUND_UPPER = 3; // score <= stored (the search failed low)
+
+    public static final int UNKNOWN_MOVE_COUNT = -1;
+
+    // Data layout: bits 0-15 move, 16-35 score (signed), 36-43 depth, 44-45 bound,
+    // 46-53 legal-move count + 1 (0 = unknown), 54 in check, 63 always set so data is never 0
+    private static final int SCORE_SHIFT = 16;
+    private static final int SCORE_BITS = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int MOVE_COUNT_SHIFT = 46;
+    private static final int IN_CHECK_SHIFT = 54;
+    private static final long OCCUPIED = 1L << 63;
+    private static final int MAX_DEPTH = 0xFF;
+
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int LONGS_PER_BUCKET = 2 * LONGS_PER_ENTRY;
+
+    // Opaque access keeps each long read and write atomic without locking or fencing
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] entries;
+    private final long bucketMask;
+
+    /**
+     * Creates a table using at most the given amount of memory, rounded down
+     * to a power-of-two number of buckets.
+     */
+    public PositionTable(int sizeMb) {
+        if (sizeMb <= 0) {
+            throw new IllegalArgumentException("Table size must be positive: " + sizeMb + " MB");
+        }
+        long buckets = Long.highestOneBit((long) sizeMb * 1024 * 1024 / (LONGS_PER_BUCKET * Long.BYTES));
+        // Java arrays are int-indexed
+        buckets = Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / LONGS_PER_BUCKET));
+        this.entries = new long[(int) buckets * LONGS_PER_BUCKET];
+        this.bucketMask = buckets - 1;
+    }
+
+    // One table for the whole process, so every game and analysis thread sees the others' results
+    private static class SharedHolder {
+        private static final PositionTable INSTANCE = new PositionTable(DEFAULT_SIZE_MB);
+    }
+
+    public static PositionTable getShared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The position's Zobrist key.
+     * @return The packed entry data, read with the static accessors, or {@link #MISS}.
+     */
+    public long probe(long key) {
+        int bucket = bucketIndex(key);
+        for (int slot = bucket; slot < bucket + LONGS_PER_BUCKET; slot += LONGS_PER_ENTRY) {
+            long data = (long) ENTRIES.getOpaque(entries, slot);
+            long check = (long) ENTRIES.getOpaque(entries, slot + 1);
+            if (data != 0 && (check ^ data) == key) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores a search result, keeping any legal-move count already known for the position.
+     *
+     * @param key The position's Zobrist key.
+     * @param bestMove The best move found as a packed move, or PackedMove.NONE.
+     * @param score The score from the side to move's point of view.
+     * @param depth The depth the score was searched to.
+     * @param bound One of the BOUND_ constants.
+     */
+    public void store(long key, int bestMove, int score, int depth, int bound) {
+        long existing = probe(key);
+        long data = pack(bestMove, score, depth, bound,
+                legalMoveCount(existing), existing != MISS && isInCheck(existing));
+        write(key, data, depth);
+    }
+
+    /**
+     * Records how many legal moves the side to move has and whether it is in
+     * check, keeping any search result already stored for the position.
+     */
+    public void storeLegalMoveCount(long key, int legalMoveCount, boolean inCheck) {
+        long existing = probe(key);
+        long data = existing == MISS
+                ? pack(0, 0, 0, BOUND_NONE, legalMoveCount, inCheck)
+                : pack(bestMove(existing), score(existing), depth(existing), bound(existing), legalMoveCount, inCheck);
+        write(key, data, depth(data));
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length; i++) {
+            ENTRIES.setOpaque(entries, i, 0L);
+        }
+    }
+
+    // Number of entries the table can hold
+    public int capacity() {
+        return entries.length / LONGS_PER_ENTRY;
+    }
+
+    public static int bestMove(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        // Shift the 20-bit field to the top and back down to restore its sign
+        return (int) (data << (64 - SCORE_SHIFT - SCORE_BITS) >> (64 - SCORE_BITS));
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & MAX_DEPTH);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 0x3);
+    }
+
+    // UNKNOWN_MOVE_COUNT if only a search result has been stored
+    public static int legalMoveCount(long data) {
+        return (int) ((data >>> MOVE_COUNT_SHIFT) & 0xFF) - 1;
+    }
+
+    public static boolean isInCheck(long data) {
+        return ((data >>> IN_CHECK_SHIFT) & 1) != 0;
+    }
+
+    private static long pack(int bestMove, int score, int depth, int bound, int legalMoveCount, boolean inCheck) {
+        return OCCUPIED
+                | (bestMove & 0xFFFFL)
+                | ((score & ((1L << SCORE_BITS) - 1)) << SCORE_SHIFT)
+                | ((long) Math.min(Math.max(depth, 0), MAX_DEPTH) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) (legalMoveCount + 1) << MOVE_COUNT_SHIFT)
+                | ((inCheck ? 1L : 0L) << IN_CHECK_SHIFT);
+    }
+
+    private void write(long key, long data, int depth) {
+        int bucket = bucketIndex(key);
+        int deepSlot = bucket;
+        int recentSlot = bucket + LONGS_PER_ENTRY;
+
+        // The depth-preferred slot takes the entry if it is empty, already holds
+        // this position, or holds something searched no deeper
+        long stored = (long) ENTRIES.getOpaque(entries, deepSlot);
+        long storedCheck = (long) ENTRIES.getOpaque(entries, deepSlot + 1);
+        boolean samePosition = stored != 0 && (storedCheck ^ stored) == key;
+        // probe() checks this slot first, so it wins over an older copy left in the other slot
+        int slot = (stored == 0 || samePosition || depth >= depth(stored)) ? deepSlot : recentSlot;
+
+        ENTRIES.setOpaque(entries, slot, data);
+        ENTRIES.setOpaque(entries, slot + 1, key ^ data);
+    }
+
+    private int bucketIndex(long key) {
+        return (int) (key & bucketMask) * LONGS_PER_BUCKET;
+    }
+}
\ No newline at end of file
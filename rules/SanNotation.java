@@ -0,0 +1,217 @@
+package rules;
+
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+import model.Piece;
+import model.PositionView;
+
+/**
+ * Standard Algebraic Notation (SAN), e.g. "Nbd7", "exd5", "e8=Q", "O-O".
+ * A move's text depends on the position it is played from (to tell apart
+ * two pieces that can reach the same square) and on the position it leads
+ * to (the "+" or "#" suffix), so callers format each move once when it is
+ * made and keep the result rather than rebuilding it from the history.
+ */
+public final class SanNotation {
+    private static final String PIECE_LETTERS = "PNBRQK"; // by Piece.Type ordinal
+
+    private SanNotation() {
+    }
+
+    /**
+     * Formats a move without its check suffix.
+     *
+     * @param position The position the move is played from.
+     * @param move The packed move, which must be legal in the position.
+     * @param legalMoves Every legal move in the position, used for disambiguation.
+     * @return The move in SAN, without "+" or "#".
+     */
+    public static String format(PositionView position, int move, MoveList legalMoves) {
+        if (PackedMove.isCastling(move)) {
+            return PackedMove.flags(move) == PackedMove.KING_CASTLE ? "O-O" : "O-O-O";
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece.Type type = position.getPieceType(from);
+        StringBuilder san = new StringBuilder(8);
+
+        if (type == Piece.Type.PAWN) {
+            // Pawn captures name the file they left, which is always enough to tell them apart
+            if (PackedMove.isCapture(move)) {
+                san.append(fileName(from)).append('x');
+            }
+            san.append(squareName(to));
+            if (PackedMove.isPromotion(move)) {
+                san.append('=').append(PIECE_LETTERS.charAt(PackedMove.promotionType(move).ordinal()));
+            }
+            return san.toString();
+        }
+
+        san.append(PIECE_LETTERS.charAt(type.ordinal()));
+        appendDisambiguation(san, position, type, from, to, legalMoves);
+        if (PackedMove.isCapture(move)) {
+            san.append('x');
+        }
+        return san.append(squareName(to)).toString();
+    }
+
+    /**
+     * Finds the legal move a SAN token stands for. Check and annotation marks
+     * ("+", "#", "!", "?") are ignored, and so are "x" and "=", which lets
+     * loosely written but unambiguous moves such as "Nf3+!" or "e8Q" through.
+     *
+     * @param position The position the move is played from.
+     * @param san The move in SAN; castling may use letter O or digit 0.
+     * @param legalMoves Every legal move in the position.
+     * @return The packed move, or {@link PackedMove#NONE} if no legal move or
+     *         more than one matches.
+     */
+    public static int parse(PositionView position, CharSequence san, MoveList legalMoves) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end < 2) {
+            return PackedMove.NONE;
+        }
+
+        if (san.charAt(0) == 'O' || san.charAt(0) == '0') {
+            int flag = isCastling(san, end, 3) ? PackedMove.KING_CASTLE
+                    : isCastling(san, end, 5) ? PackedMove.QUEEN_CASTLE : -1;
+            for (int i = 0; i < legalMoves.size(); i++) {
+                if (PackedMove.flags(legalMoves.get(i)) == flag) {
+                    return legalMoves.get(i);
+                }
+            }
+            return PackedMove.NONE;
+        }
+
+        int start = 0;
+        Piece.Type type = Piece.Type.PAWN;
+        int letter = PIECE_LETTERS.indexOf(san.charAt(0));
+        if (letter > 0) {
+            type = Piece.Type.values()[letter];
+            start = 1;
+        }
+
+        Piece.Type promotion = null;
+        if (type == Piece.Type.PAWN) {
+            int promotionLetter = PIECE_LETTERS.indexOf(san.charAt(end - 1));
+            if (promotionLetter > 0 && promotionLetter < Piece.Type.KING.ordinal()) {
+                promotion = Piece.Type.values()[promotionLetter];
+                end--;
+                if (end > 0 && san.charAt(end - 1) == '=') {
+                    end--;
+                }
+            }
+        }
+
+        if (end - start < 2) {
+            return PackedMove.NONE;
+        }
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = '8' - san.charAt(end - 1);
+        if (toFile < 0 || toFile >= Board.SIZE || toRank < 0 || toRank >= Board.SIZE) {
+            return PackedMove.NONE;
+        }
+        int to = Board.toSquare(toFile, toRank);
+
+        // Whatever sits between the piece letter and the destination narrows down the start square
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = '8' - c;
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return PackedMove.NONE;
+            }
+        }
+
+        int found = PackedMove.NONE;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || PackedMove.isCastling(move)
+                    || (fromFile >= 0 && Board.fileOf(from) != fromFile)
+                    || (fromRank >= 0 && Board.rankOf(from) != fromRank)
+                    || position.getPieceType(from) != type
+                    || (PackedMove.isPromotion(move) ? PackedMove.promotionType(move) != promotion : promotion != null)) {
+                continue;
+            }
+            if (found != PackedMove.NONE) {
+                return PackedMove.NONE; // Ambiguous
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    // "O-O" has 3 characters and "O-O-O" 5; either may be written with zeros
+    private static boolean isCastling(CharSequence san, int end, int length) {
+        if (end != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = san.charAt(i);
+            if (i % 2 == 0 ? (c != 'O' && c != '0') : c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the suffix for the position after a move: "#" for checkmate,
+     * "+" for check, or an empty string.
+     *
+     * @param inCheck Whether the side to move after the move is in check.
+     * @param hasLegalMoves Whether that side has any legal move.
+     */
+    public static String suffix(boolean inCheck, boolean hasLegalMoves) {
+        if (!inCheck) {
+            return "";
+        }
+        return hasLegalMoves ? "+" : "#";
+    }
+
+    // e.g. "e4", with Board's rank 0 being rank 8
+    public static String squareName(int square) {
+        return "" + fileName(square) + (char) ('8' - Board.rankOf(square));
+    }
+
+    private static char fileName(int square) {
+        return (char) ('a' + Board.fileOf(square));
+    }
+
+    // Adds the start file, rank or both when another piece of the same type can reach the same square
+    private static void appendDisambiguation(StringBuilder san, PositionView position, Piece.Type type,
+                                             int from, int to, MoveList legalMoves) {
+        boolean ambiguous = false;
+        boolean sharesFile = false;
+        boolean sharesRank = false;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int other = legalMoves.get(i);
+            int otherFrom = PackedMove.from(other);
+            if (PackedMove.to(other) != to || otherFrom == from || position.getPieceType(otherFrom) != type) {
+                continue;
+            }
+            ambiguous = true;
+            sharesFile |= Board.fileOf(otherFrom) == Board.fileOf(from);
+            sharesRank |= Board.rankOf(otherFrom) == Board.rankOf(from);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sharesFile) {
+            san.append(fileName(from));
+        } else if (!sharesRank) {
+            san.append((char) ('8' - Board.rankOf(from)));
+        } else {
+            san.append(fileName(from)).append((char) ('8' - Board.rankOf(from)));
+        }
+    }
+}
\ No newline at end of file
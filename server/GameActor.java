@@ -0,0 +1,72 @@
+package server;
+
+import game.Game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Confines one {@link Game} to a single logical thread. Work for the game is
+ * queued in a mailbox and run one message at a time on a shared executor, so
+ * the game itself needs no locking and an idle game holds no thread at all;
+ * thousands of actors can share a pool sized to the CPU count.
+ */
+final class GameActor {
+    // Messages run per turn on the executor before the actor yields to other games
+    private static final int MAX_MESSAGES_PER_TURN = 32;
+
+    private final long id;
+    private final Game game;
+    private final Executor executor;
+    private final Queue<Consumer<Game>> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    GameActor(long id, Game game, Executor executor) {
+        this.id = id;
+        this.game = game;
+        this.executor = executor;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Queues work for the game. It runs after everything queued before it,
+     * never at the same time as other work for this game, on an executor thread.
+     */
+    void tell(Consumer<Game> message) {
+        mailbox.add(message);
+        schedule();
+    }
+
+    private void schedule() {
+        // Only one drain is queued or running at a time, which is what keeps the game single-threaded
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Consumer<Game> message;
+            for (int i = 0; i < MAX_MESSAGES_PER_TURN && (message = mailbox.poll()) != null; i++) {
+                try {
+                    message.accept(game);
+                } catch (RuntimeException e) {
+                    // Senders that owe a reply catch their own failures; this only keeps the actor alive
+                    System.err.println("Game " + id + ": " + e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        // A message may have arrived after the last poll but before the flag was cleared
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,398 @@
+package server;
+
+import game.Game;
+import game.GameListener;
+import game.GameResult;
+import game.TimeControl;
+import model.Move;
+import model.MoveList;
+import model.PackedMove;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A headless server hosting many games at once over a line-based protocol
+ * on a local TCP socket. Each game is a {@link GameActor}: its commands run
+ * one at a time on a shared pool with one thread per CPU, so thousands of
+ * games need no thread of their own. Clocks are never polled: each running
+ * clock has one flag-fall deadline on a shared scheduler (see
+ * {@link game.ChessClock}), so idle games cost nothing.
+ *
+ * <p>Commands, one per line; every reply is one line starting with OK or ERR
+ * and the command name, so replies for different games can be told apart:
+ * <pre>
+ * NEW [fen]          OK NEW id
+ * MOVES id           OK MOVES id e2e4 d2d4 ...   (legal moves in UCI notation)
+ * MOVE id uci        OK MOVE id san result       (result is a GameResult name;
+ *                                                ERR MOVE id game over result once it is not IN_PROGRESS)
+ * UNDO id            OK UNDO id                  (ERR UNDO id nothing to undo at the start)
+ * FEN id             OK FEN id fen
+ * CLOCK id           OK CLOCK id whiteMillis blackMillis
+ * TIMECONTROL id ms [incrementMs [delayMs]]
+ *                    OK TIMECONTROL id          (restarts both clocks)
+ * CLOSE id           OK CLOSE id
+ * STATS              OK STATS games=.. moves=.. moves_per_sec=.. p50_us=.. p99_us=..
+ * QUIT               (closes the connection and its games once earlier commands are answered)
+ * </pre>
+ * Errors read "ERR command [id] message", including for a FEN that is not a
+ * playable position and for a command that failed while it ran. When a side runs out of time the
+ * server sends "TIMEOUT id color" unasked. Games belong to the connection
+ * that created them and end when it closes.
+ *
+ * Usage: java server.GameServer [port]
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 7878;
+    private static final long QUIT_TIMEOUT_SECONDS = 5;
+
+    private final int port;
+    private final Map<Long, GameActor> games = new ConcurrentHashMap<>();
+    private final AtomicLong nextGameId = new AtomicLong(1);
+    private final LongAdder movesPlayed = new LongAdder();
+    private final LatencyRecorder moveLatency = new LatencyRecorder();
+    private final ExecutorService actorPool =
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), namedThreads("game-actor"));
+    private final ExecutorService connectionThreads = Executors.newCachedThreadPool(namedThreads("server-connection"));
+    private final long startNanos = System.nanoTime();
+    private volatile ServerSocket serverSocket;
+
+    public GameServer(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Binds to the loopback interface and accepts connections until
+     * {@link #stop()} is called. Blocks the calling thread.
+     *
+     * @throws IOException if the port cannot be bound.
+     */
+    public void run() throws IOException {
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        System.out.println("Chess server listening on " + serverSocket.getLocalSocketAddress());
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connectionThreads.execute(new Session(socket));
+            }
+        } catch (IOException e) {
+            if (!serverSocket.isClosed()) {
+                throw e;
+            }
+        } finally {
+            stop();
+        }
+    }
+
+    public void stop() {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing server socket: " + e.getMessage());
+        }
+        connectionThreads.shutdownNow();
+        actorPool.shutdownNow();
+    }
+
+    private String stats() {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        long moves = movesPlayed.sum();
+        return String.format("OK STATS games=%d moves=%d moves_per_sec=%.0f p50_us=%d p99_us=%d",
+                games.size(), moves, seconds > 0 ? moves / seconds : 0.0,
+                moveLatency.percentileMicros(50), moveLatency.percentileMicros(99));
+    }
+
+    // One connection: commands are read and parsed on the connection's thread, then handed to game actors
+    private class Session implements Runnable {
+        private final Socket socket;
+        private final Writer writer;
+        private final Set<Long> ownGames = new HashSet<>(); // only touched on the connection thread
+
+        Session(Socket socket) throws IOException {
+            this.socket = socket;
+            this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!handle(line.trim())) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                // The client went away; its games are closed below
+            } finally {
+                for (Long id : ownGames) {
+                    closeGame(id);
+                }
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Already closed
+                }
+            }
+        }
+
+        // Returns false when the client asked to quit
+        private boolean handle(String line) {
+            if (line.isEmpty()) {
+                return true;
+            }
+            long received = System.nanoTime();
+            String[] words = line.split(" ", 3);
+            String command = words[0].toUpperCase();
+            switch (command) {
+                case "QUIT":
+                    awaitPendingReplies();
+                    return false;
+                case "STATS":
+                    send(stats());
+                    return true;
+                case "NEW":
+                    newGame(line.length() > 4 ? line.substring(4).trim() : null);
+                    return true;
+                default:
+                    break;
+            }
+
+            GameActor actor = words.length > 1 ? findGame(words[1]) : null;
+            if (actor == null) {
+                send("ERR " + command + (words.length > 1 ? " " + words[1] : "") + " no such game");
+                return true;
+            }
+            long id = actor.getId();
+            switch (command) {
+                case "MOVES":
+                    tell(actor, command, game -> send("OK MOVES " + id + legalMoves(game)));
+                    break;
+                case "MOVE":
+                    if (words.length < 3) {
+                        send("ERR MOVE " + id + " missing move");
+                        break;
+                    }
+                    String uci = words[2].trim();
+                    tell(actor, command, game -> {
+                        send(move(game, id, uci));
+                        moveLatency.recordNanos(System.nanoTime() - received);
+                    });
+                    break;
+                case "UNDO":
+                    tell(actor, command, game -> {
+                        if (game.getFormattedMoveHistory().isEmpty()) {
+                            send("ERR UNDO " + id + " nothing to undo");
+                            return;
+                        }
+                        game.undoLastMove();
+                        send("OK UNDO " + id);
+                    });
+                    break;
+                case "FEN":
+                    tell(actor, command, game -> send("OK FEN " + id + " " + game.toFen()));
+                    break;
+                case "CLOCK":
+                    tell(actor, command, game -> send("OK CLOCK " + id + " " + game.getWhiteTimeMillis() + " " + game.getBlackTimeMillis()));
+                    break;
+                case "TIMECONTROL":
+                    TimeControl timeControl = words.length > 2 ? parseTimeControl(words[2]) : null;
+                    if (timeControl == null) {
+                        send("ERR TIMECONTROL " + id + " expected: ms [incrementMs [delayMs]]");
+                        break;
+                    }
+                    tell(actor, command, game -> {
+                        game.setTimeControl(timeControl);
+                        send("OK TIMECONTROL " + id);
+                    });
+                    break;
+                case "CLOSE":
+                    closeGame(id);
+                    ownGames.remove(id);
+                    send("OK CLOSE " + id);
+                    break;
+                default:
+                    send("ERR " + command + " unknown command");
+                    break;
+            }
+            return true;
+        }
+
+        // Queues a command on the game's actor; if it throws, the client is still answered for it
+        private void tell(GameActor actor, String command, Consumer<Game> action) {
+            long id = actor.getId();
+            actor.tell(game -> {
+                try {
+                    action.accept(game);
+                } catch (RuntimeException e) {
+                    send("ERR " + command + " " + id + " " + (e.getMessage() != null ? e.getMessage() : e.toString()));
+                }
+            });
+        }
+
+        private void newGame(String fen) {
+            Game game;
+            try {
+                game = fen == null || fen.isEmpty() ? new Game() : Game.fromFen(fen);
+            } catch (IllegalArgumentException e) {
+                send("ERR NEW " + e.getMessage());
+                return;
+            }
+            game.setConsoleOutput(false);
+            long id = nextGameId.getAndIncrement();
+            GameActor actor = new GameActor(id, game, actorPool);
+            game.addGameListener(new GameListener() {
+                @Override
+                public void gameOver(Game g, GameResult result) {
+                    // A loss on time arrives on the clock's thread; report it in turn with the game's other work
+                    if (result == GameResult.TIMEOUT) {
+                        actor.tell(actorGame -> send("TIMEOUT " + id + " " + actorGame.getCurrentPlayerTurn()));
+                    }
+                }
+            });
+            games.put(id, actor);
+            ownGames.add(id);
+            send("OK NEW " + id);
+        }
+
+        // Stopping the clock cancels its deadline, which would otherwise keep the game alive
+        private void closeGame(long id) {
+            GameActor actor = games.remove(id);
+            if (actor != null) {
+                actor.tell(Game::stopTimer);
+            }
+        }
+
+        // Waits until every game of this connection has answered what was sent before QUIT
+        private void awaitPendingReplies() {
+            CountDownLatch answered = new CountDownLatch(ownGames.size());
+            for (Long id : ownGames) {
+                GameActor actor = games.get(id);
+                if (actor != null) {
+                    actor.tell(game -> answered.countDown());
+                } else {
+                    answered.countDown();
+                }
+            }
+            try {
+                answered.await(QUIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Only the connection that created a game may use it
+        private GameActor findGame(String idText) {
+            try {
+                long id = Long.parseLong(idText.trim().split(" ")[0]);
+                return ownGames.contains(id) ? games.get(id) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private void send(String reply) {
+            synchronized (writer) {
+                try {
+                    writer.write(reply);
+                    writer.write('\n');
+                    writer.flush();
+                } catch (IOException e) {
+                    // The client went away; the connection thread cleans up
+                }
+            }
+        }
+    }
+
+    // "ms [incrementMs [delayMs]]", or null if that is not what the text holds
+    private static TimeControl parseTimeControl(String text) {
+        String[] fields = text.trim().split(" +");
+        if (fields.length > 3) {
+            return null;
+        }
+        try {
+            long[] values = new long[3];
+            for (int i = 0; i < fields.length; i++) {
+                values[i] = Long.parseLong(fields[i]);
+            }
+            return new TimeControl(values[0], values[1], values[2]);
+        } catch (IllegalArgumentException e) { // Also catches NumberFormatException
+            return null;
+        }
+    }
+
+    // Runs on the game's actor
+    private static String legalMoves(Game game) {
+        MoveList moves = new MoveList();
+        game.getLegalMoves(moves);
+        StringBuilder text = new StringBuilder(moves.size() * 5);
+        for (int i = 0; i < moves.size(); i++) {
+            text.append(' ').append(PackedMove.toUci(moves.get(i)));
+        }
+        return text.toString();
+    }
+
+    // Runs on the game's actor
+    private String move(Game game, long id, String uci) {
+        // A draw by rule still leaves legal moves, so the list alone would not stop play
+        GameResult result = game.getGameResult();
+        if (result != GameResult.IN_PROGRESS) {
+            return "ERR MOVE " + id + " game over " + result;
+        }
+        MoveList moves = new MoveList();
+        game.getLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (!PackedMove.toUci(moves.get(i)).equals(uci)) {
+                continue;
+            }
+            Move move = PackedMove.toMove(moves.get(i), game.getBoard());
+            if (!game.makeMove(move.getStart(), move.getEnd(), move.getPromotedPieceType())) {
+                return "ERR MOVE " + id + " rejected " + uci;
+            }
+            movesPlayed.increment();
+            List<String> history = game.getFormattedMoveHistory();
+            return "OK MOVE " + id + " " + history.get(history.size() - 1) + " " + game.getGameResult();
+        }
+        return "ERR MOVE " + id + " illegal move " + uci;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        new GameServer(port).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram. Values are in microseconds and land in
+ * buckets of 16 per power of two, so any percentile is within about 6% of
+ * the true value while the whole histogram stays a fixed 8 KB no matter how
+ * many samples are recorded. Any number of threads may record at once.
+ */
+public class LatencyRecorder {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+
+    public void recordNanos(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos / 1000)));
+        total.increment();
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the latency at or below which the given share of samples fall,
+     * rounded up to the top of its bucket.
+     *
+     * @param percentile From 0 to 100, e.g. 99 for p99.
+     * @return The latency in microseconds, or 0 if nothing was recorded.
+     */
+    public long percentileMicros(double percentile) {
+        long count = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && seen > 0) {
+                return upperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    // Values below 16 get a bucket each; above that, 16 buckets per power of two
+    private static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int highBit = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (highBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (highBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int highBit = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        long width = 1L << (highBit - SUB_BUCKET_BITS);
+        return (1L << highBit) + (subBucket + 1) * width - 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives a running {@link GameServer} with random legal moves and reports
+ * throughput and round-trip latency. Each connection keeps several games in
+ * flight at once, so the server always has work queued for many actors.
+ * A game that ends, or runs past a ply limit, is closed and replaced.
+ *
+ * Usage: java server.LoadTest [--host H] [--port P] [--connections N] [--games N] [--seconds N]
+ */
+public class LoadTest {
+    private static final int MAX_PLIES = 200;
+
+    private final LatencyRecorder latency = new LatencyRecorder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean running = true;
+
+    // One connection: a single thread sends the next request for a game as soon as its reply arrives.
+    // The server reads requests independently of writing replies, so this cannot deadlock.
+    private final class Client implements Runnable {
+        private final Socket socket;
+        private final int games;
+        private final Random random;
+        private final Map<Long, Long> sentAt = new HashMap<>();
+        private final Map<Long, Integer> plies = new HashMap<>();
+        private int openGames; // Games created or being created and not yet closed
+
+        Client(Socket socket, int games, long seed) {
+            this.socket = socket;
+            this.games = games;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader reader = new BufferedReader(
+                         new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 Writer writer = new BufferedWriter(
+                         new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                for (int i = 0; i < games; i++) {
+                    writer.write("NEW\n");
+                }
+                writer.flush();
+                openGames = games;
+                String line;
+                while (openGames > 0 && (line = reader.readLine()) != null) {
+                    writer.write(reply(line));
+                    writer.flush();
+                }
+                writer.write("QUIT\n");
+                writer.flush();
+            } catch (IOException e) {
+                System.err.println("Connection failed: " + e.getMessage());
+            }
+        }
+
+        // Returns the next request for the game the reply was about, if any
+        private String reply(String line) {
+            String[] words = line.split(" ");
+            if (words[0].equals("ERR")) {
+                // The game is abandoned; the server drops it when the connection closes
+                errors.increment();
+                openGames--;
+                System.err.println(line);
+                return "";
+            }
+            if (words[0].equals("TIMEOUT")) {
+                return ""; // The next MOVE for the game fails and retires it
+            }
+            long id = Long.parseLong(words[2]);
+            switch (words[1]) {
+                case "NEW":
+                    plies.put(id, 0);
+                    return running ? "MOVES " + id + "\n" : retire(id);
+                case "MOVES":
+                    if (words.length == 3) { // A game set up with no legal moves
+                        return retire(id);
+                    }
+                    sentAt.put(id, System.nanoTime());
+                    return "MOVE " + id + " " + words[3 + random.nextInt(words.length - 3)] + "\n";
+                case "MOVE":
+                    latency.recordNanos(System.nanoTime() - sentAt.remove(id));
+                    moves.increment();
+                    int played = plies.merge(id, 1, Integer::sum);
+                    if (!running || !words[4].equals("IN_PROGRESS") || played >= MAX_PLIES) {
+                        return retire(id);
+                    }
+                    return "MOVES " + id + "\n";
+                case "CLOSE":
+                    plies.remove(id);
+                    openGames--;
+                    return "";
+                default:
+                    return "";
+            }
+        }
+
+        // Closes a game, starting another in its place until the test is over
+        private String retire(long id) {
+            if (!running) {
+                return "CLOSE " + id + "\n";
+            }
+            openGames++;
+            return "CLOSE " + id + "\nNEW\n";
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String host = "localhost";
+        int port = GameServer.DEFAULT_PORT;
+        int connections = 4;
+        int gamesPerConnection = 64;
+        int seconds = 10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host":
+                    host = args[++i];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--connections":
+                    connections = Integer.parseInt(args[++i]);
+                    break;
+                case "--games":
+                    gamesPerConnection = Integer.parseInt(args[++i]);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        LoadTest test = new LoadTest();
+        Thread[] threads = new Thread[connections];
+        long startTime = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            Socket socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            threads[i] = new Thread(test.new Client(socket, gamesPerConnection, i), "load-test-" + i);
+            threads[i].start();
+        }
+        Thread.sleep(seconds * 1000L);
+        test.running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+        System.out.println("Connections: " + connections + ", games in flight: " + connections * gamesPerConnection);
+        System.out.println("Moves: " + test.moves.sum() + " (" + test.errors.sum() + " errors)");
+        System.out.printf("Moves/s: %.0f%n", test.moves.sum() / elapsed);
+        System.out.println("Round trip p50: " + test.latency.percentileMicros(50) + " us, p99: "
+                + test.latency.percentileMicros(99) + " us");
+        try (Socket socket = new Socket(host, port);
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            writer.write("STATS\nQUIT\n");
+            writer.flush();
+            System.out.println("Server: " + reader.readLine());
+        }
+    }
+}
\ No newline at end of file
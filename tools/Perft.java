@@ -0,0 +1,198 @@
+package tools;
+
+import model.Board;
+import model.Fen;
+import model.MoveList;
+import model.PackedMove;
+import model.Position;
+import rules.ChessMoveValidator;
+import rules.MoveGenerator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth.
+ * The totals for well-known positions are published, so any difference
+ * points at a bug in move generation (castling, en passant, promotion...).
+ *
+ * Usage: java tools.Perft depth [--fen "FEN"] [--divide] [--threads N]
+ */
+public class Perft {
+    private static final int MAX_DEPTH = 64;
+
+    private final MoveGenerator moveGenerator;
+
+    public Perft() {
+        this.moveGenerator = new MoveGenerator(new ChessMoveValidator());
+    }
+
+    /**
+     * Counts leaf nodes below the given position. The board is played on in
+     * place and is back in its original state when this returns.
+     *
+     * @param board The position to start from.
+     * @param depth The number of plies to search, from 0 to 64.
+     * @return The number of leaf nodes at that depth.
+     * @throws IllegalArgumentException if the depth is out of range.
+     */
+    public long perft(Board board, int depth) {
+        if (depth < 0 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be 0 to " + MAX_DEPTH + ": " + depth);
+        }
+        // One reusable move list per ply, so the search itself does not allocate
+        MoveList[] movesPerPly = new MoveList[depth + 1];
+        for (int i = 0; i < movesPerPly.length; i++) {
+            movesPerPly[i] = new MoveList();
+        }
+        return perft(board, depth, movesPerPly);
+    }
+
+    private long perft(Board board, int depth, MoveList[] movesPerPly) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = movesPerPly[depth];
+        moves.clear();
+        moveGenerator.generateLegalMoves(board, moves);
+        if (depth == 1) {
+            return moves.size(); // Bulk counting: no need to play the last ply
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += perft(board, depth - 1, movesPerPly);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Runs perft separately below each root move.
+     *
+     * @param board The position to start from.
+     * @param depth The number of plies to search, including the root move.
+     * @param pool The pool to split root moves across, or null to run on the calling thread.
+     * @return Leaf counts per root move in UCI notation, in generation order.
+     */
+    public Map<String, Long> divide(Board board, int depth, ForkJoinPool pool) {
+        MoveList rootMoves = new MoveList();
+        moveGenerator.generateLegalMoves(board, rootMoves);
+        Map<String, Long> counts = new LinkedHashMap<>();
+
+        if (pool == null) {
+            for (int i = 0; i < rootMoves.size(); i++) {
+                board.makeMove(rootMoves.get(i));
+                counts.put(PackedMove.toUci(rootMoves.get(i)), perft(board, depth - 1));
+                board.unmakeMove();
+            }
+            return counts;
+        }
+
+        // Every task reads the same immutable snapshot and builds its own board from it
+        // on the worker thread, so no mutable board is shared between threads
+        Position root = board.snapshot();
+        List<RootMoveTask> tasks = new ArrayList<>();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            tasks.add(new RootMoveTask(root, rootMoves.get(i), depth - 1));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+        for (int i = 0; i < rootMoves.size(); i++) {
+            counts.put(PackedMove.toUci(rootMoves.get(i)), tasks.get(i).join());
+        }
+        return counts;
+    }
+
+    @SuppressWarnings("serial") // Never serialized; RecursiveTask is Serializable only by inheritance
+    private class RootMoveTask extends RecursiveTask<Long> {
+        private final Position root;
+        private final int move;
+        private final int depth;
+
+        RootMoveTask(Position root, int move, int depth) {
+            this.root = root;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            return perft(root.play(move).toBoard(), depth);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java tools.Perft depth [--fen \"FEN\"] [--divide] [--threads N]");
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        if (depth < 0 || depth > MAX_DEPTH) {
+            System.out.println("Depth must be 0 to " + MAX_DEPTH + ": " + depth);
+            return;
+        }
+        String fen = Fen.STARTING_POSITION;
+        boolean showDivide = false;
+        int threads = 1;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--fen":
+                    fen = args[++i];
+                    break;
+                case "--divide":
+                    showDivide = true;
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        Board board = Fen.toBoard(fen);
+        Perft perft = new Perft();
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+
+        long startTime = System.nanoTime();
+        long nodes;
+        if (showDivide || pool != null) {
+            Map<String, Long> counts = perft.divide(board, Math.max(depth, 1), pool);
+            nodes = 0;
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                if (showDivide) {
+                    System.out.println(entry.getKey() + ": " + entry.getValue());
+                }
+                nodes += entry.getValue();
+            }
+            if (showDivide) {
+                System.out.println();
+            }
+        } else {
+            nodes = perft.perft(board, depth);
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        if (pool != null) {
+            pool.shutdown();
+        }
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.println("Depth: " + depth + (pool != null ? " (" + threads + " threads)" : ""));
+        System.out.println("Nodes: " + nodes);
+        System.out.printf("Time: %.3f s%n", seconds);
+        System.out.printf("NPS: %.0f%n", seconds > 0 ? nodes / seconds : 0.0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,225 @@
+package ui;
+
+import model.Board;
+import model.Piece;
+
+import javax.swing.JComponent;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.image.BufferedImage;
+
+/**
+ * Paints the whole board as one component. Squares take the largest size
+ * that fits, and pieces are drawn from a {@link SpriteCache} at exactly the
+ * square's device-pixel size, so painting a piece is a plain blit. After a
+ * resize or a move to a screen with a different scale factor, the new
+ * sprites are scaled in the background and the old ones are stretched
+ * until they arrive. Every change (a move, a selection, a check) repaints
+ * only the squares it touches, so an update never creates components or
+ * rescales images.
+ *
+ * <p>The view keeps its own copy of what stands on each square, refreshed
+ * from the board only for squares the caller says have changed. Like any
+ * Swing component it must be used on the EDT.
+ */
+@SuppressWarnings("serial") // Swing components are never serialized here
+class BoardView extends JComponent {
+    private static final Color LIGHT_SQUARE = new Color(240, 217, 181);
+    private static final Color DARK_SQUARE = new Color(181, 136, 99);
+    private static final Color GRID_LINE = Color.DARK_GRAY;
+    private static final Color MOVE_TARGET = new Color(100, 255, 100, 150);
+    private static final Color MOVE_DOT = Color.GREEN.darker();
+    private static final Color SELECTED = Color.BLUE;
+    private static final Color IN_CHECK = Color.RED;
+    private static final Font FALLBACK_FONT = new Font("Arial", Font.BOLD, 40);
+    private static final BasicStroke SELECTED_STROKE = new BasicStroke(3);
+    private static final BasicStroke CHECK_STROKE = new BasicStroke(4);
+
+    private final SpriteCache sprites;
+    // The square size and scale factor sprites were last requested for
+    private int preparedTileSize;
+    private double preparedScale;
+    private final String[] symbols = new String[Board.SIZE * Board.SIZE]; // null for an empty square
+    private int selectedSquare = Board.NO_SQUARE;
+    private long moveTargets; // Bitboard of highlighted destinations
+    private int checkedSquare = Board.NO_SQUARE;
+
+    /**
+     * @param sprites The piece images; a piece without one is drawn as its letter.
+     * @param preferredTileSize Side of a square in pixels before any resizing.
+     */
+    BoardView(SpriteCache sprites, int preferredTileSize) {
+        this.sprites = sprites;
+        setPreferredSize(new Dimension(Board.SIZE * preferredTileSize, Board.SIZE * preferredTileSize));
+        setOpaque(true);
+    }
+
+    // Squares fill the smaller of the two dimensions
+    private int tileSize() {
+        return Math.max(1, Math.min(getWidth(), getHeight()) / Board.SIZE);
+    }
+
+    /** Copies every square from the board, e.g. for a new game. */
+    void showPosition(Board board) {
+        for (int square = 0; square < symbols.length; square++) {
+            symbols[square] = symbolAt(board, square);
+        }
+        repaint();
+    }
+
+    /** Copies the given squares (a bitboard, bit = Board.toSquare) from the board and repaints just those. */
+    void updateSquares(Board board, long squares) {
+        for (long rest = squares; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            symbols[square] = symbolAt(board, square);
+        }
+        repaintSquares(squares);
+    }
+
+    /**
+     * Highlights a selected piece and where it can go, clearing the previous
+     * selection.
+     *
+     * @param square The selected square, or Board.NO_SQUARE for none.
+     * @param targets Bitboard of destinations to mark.
+     */
+    void setSelection(int square, long targets) {
+        long changed = bit(selectedSquare) | moveTargets | bit(square) | targets;
+        selectedSquare = square;
+        moveTargets = targets;
+        repaintSquares(changed);
+    }
+
+    /** Marks the king in check, or nothing for Board.NO_SQUARE. */
+    void setCheckedSquare(int square) {
+        long changed = bit(checkedSquare) | bit(square);
+        checkedSquare = square;
+        repaintSquares(changed);
+    }
+
+    /** The board coordinates under a point in this component, or null if it is off the board. */
+    Point squareAt(Point point) {
+        int tileSize = tileSize();
+        int x = point.x / tileSize;
+        int y = point.y / tileSize;
+        if (point.x < 0 || point.y < 0 || x >= Board.SIZE || y >= Board.SIZE) {
+            return null;
+        }
+        return new Point(x, y);
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        int tileSize = tileSize();
+        double scale = g.getTransform().getScaleX(); // Device pixels per user-space pixel
+        if (tileSize != preparedTileSize || scale != preparedScale) {
+            preparedTileSize = tileSize;
+            preparedScale = scale;
+            sprites.prepare(tileSize, scale, this::repaint);
+        }
+
+        g.setColor(getBackground());
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.fillRect(clip.x, clip.y, clip.width, clip.height); // Any strip the squares do not cover
+        // Only the squares inside the clip, which for a move is a few squares rather than the board
+        int firstX = Math.max(0, clip.x / tileSize);
+        int firstY = Math.max(0, clip.y / tileSize);
+        int lastX = Math.min(Board.SIZE - 1, (clip.x + clip.width - 1) / tileSize);
+        int lastY = Math.min(Board.SIZE - 1, (clip.y + clip.height - 1) / tileSize);
+        for (int y = firstY; y <= lastY; y++) {
+            for (int x = firstX; x <= lastX; x++) {
+                paintSquare(g, x, y, tileSize, scale);
+            }
+        }
+    }
+
+    private void paintSquare(Graphics2D g, int x, int y, int tileSize, double scale) {
+        int square = Board.toSquare(x, y);
+        int left = x * tileSize;
+        int top = y * tileSize;
+        boolean target = (moveTargets & bit(square)) != 0;
+
+        g.setColor((x + y) % 2 == 0 ? LIGHT_SQUARE : DARK_SQUARE);
+        g.fillRect(left, top, tileSize, tileSize);
+        if (target) {
+            g.setColor(MOVE_TARGET);
+            g.fillRect(left, top, tileSize, tileSize);
+        }
+
+        String symbol = symbols[square];
+        if (symbol != null) {
+            BufferedImage sprite = sprites.hasImage(symbol) ? sprites.getOrNearest(symbol, tileSize, scale) : null;
+            if (sprite != null) {
+                // A blit when the sprite is the prepared size; a stretch only while it is being rescaled
+                g.drawImage(sprite, left, top, tileSize, tileSize, null);
+            } else {
+                drawLetter(g, symbol, left, top, tileSize);
+            }
+        }
+
+        if (target) {
+            int dotSize = tileSize / 4;
+            g.setColor(MOVE_DOT);
+            g.fillOval(left + (tileSize - dotSize) / 2, top + (tileSize - dotSize) / 2, dotSize, dotSize);
+        }
+
+        g.setColor(GRID_LINE);
+        g.drawRect(left, top, tileSize - 1, tileSize - 1);
+        if (square == selectedSquare) {
+            drawFrame(g, SELECTED, SELECTED_STROKE, left, top, tileSize);
+        }
+        if (square == checkedSquare) {
+            drawFrame(g, IN_CHECK, CHECK_STROKE, left, top, tileSize);
+        }
+    }
+
+    // A border of the stroke's width drawn just inside the square
+    private void drawFrame(Graphics2D g, Color color, BasicStroke stroke, int left, int top, int tileSize) {
+        int inset = (int) stroke.getLineWidth() / 2;
+        Stroke previous = g.getStroke();
+        g.setColor(color);
+        g.setStroke(stroke);
+        g.drawRect(left + inset, top + inset, tileSize - 1 - 2 * inset, tileSize - 1 - 2 * inset);
+        g.setStroke(previous);
+    }
+
+    private void drawLetter(Graphics2D g, String symbol, int left, int top, int tileSize) {
+        g.setColor(Color.BLACK);
+        g.setFont(FALLBACK_FONT.deriveFont(tileSize / 2f));
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        FontMetrics metrics = g.getFontMetrics();
+        int textX = left + (tileSize - metrics.stringWidth(symbol)) / 2;
+        int textY = top + (tileSize - metrics.getHeight()) / 2 + metrics.getAscent();
+        g.drawString(symbol, textX, textY);
+    }
+
+    private void repaintSquares(long squares) {
+        int tileSize = tileSize();
+        for (long rest = squares; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            repaint(square % Board.SIZE * tileSize, square / Board.SIZE * tileSize, tileSize, tileSize);
+        }
+    }
+
+    private static String symbolAt(Board board, int square) {
+        Piece piece = board.getPiece(Board.pointOf(square));
+        return piece != null ? piece.getSymbol() : null;
+    }
+
+    private static long bit(int square) {
+        return square == Board.NO_SQUARE ? 0 : 1L << square;
+    }
+}
\ No newline at end of file
@@ -1,20 +1,23 @@
 package ui;
 
+import engine.EnginePlayer;
+import engine.SearchResult;
 import game.Game;
+import game.GameListener;
+import game.GameResult;
+import game.MoveEvent;
 import model.Board;
 import model.Piece;
 import pieces.*;
 
 import javax.swing.*;
 import javax.swing.border.Border;
-import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,34 +26,44 @@ import javax.imageio.ImageIO;
 public class ChessGUI extends JFrame {
     private JLabel whiteScoreLabel;
     private JLabel blackScoreLabel;
-    private static final Map<Class<?>, Integer> PIECE_VALUES = new HashMap<>() {{
-        put(Queen.class, 9);
-        put(Rook.class, 5);
-        put(Bishop.class, 3);
-        put(Knight.class, 3);
-        put(Pawn.class, 1);
-    }};
     private Game game;
-    private JPanel boardPanel;
+    private BoardView boardView;
     private JLabel statusLabel;
     private Point selectedSquare = null;
-    private List<Point> possibleMovesToHighlight = new ArrayList<>(); // For showing valid moves
 
-    private Map<String, ImageIcon> pieceImages;
-    private final int TILE_SIZE = 80;
+    private SpriteCache sprites;
+    private final int TILE_SIZE = 80; // Initial square size; the board grows and shrinks with the window
+    private final int PROMOTION_ICON_SIZE = 40;
 
     // UI elements for the right panel
     private JLabel whiteTimerLabel;
     private JLabel blackTimerLabel;
     private JList<String> moveList;
     private DefaultListModel<String> moveListModel;
-    private Timer swingTimer; // For updating game timers
+    // One-shot: fires when the running clock's display next changes, never to measure time
+    private Timer clockDisplayTimer;
+
+    // What the view knows of the game, kept current by its events rather than by asking again
+    private final GameListener gameEvents = new GameEvents();
+    private GameResult endResult; // null while the game goes on
+    private int checkedKingSquare = Board.NO_SQUARE;
+    private long whiteMillisAtTick;
+    private long blackMillisAtTick;
+    private Piece.Color runningClock; // null while the clocks are stopped
+    private long clockTickNanos;
+    private long clockDelayMillis;
+
+    // Single-player mode: the computer plays Black when enabled
+    private final EnginePlayer enginePlayer = new EnginePlayer(Piece.Color.BLACK);
+    private JCheckBox vsComputerCheckBox;
+    private JLabel engineStatsLabel;
+    private boolean engineThinking = false;
 
     public ChessGUI(Game game) {
         this.game = game;
         setTitle("Simple Chess Game");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setResizable(false);
+        setResizable(true);
         setLayout(new BorderLayout());
 
         loadPieceImages();
@@ -60,9 +73,8 @@ public class ChessGUI extends JFrame {
         add(mainContentPanel, BorderLayout.CENTER);
 
         // Board Panel
-        boardPanel = new JPanel(new GridLayout(Board.SIZE, Board.SIZE));
-        boardPanel.setPreferredSize(new Dimension(Board.SIZE * TILE_SIZE, Board.SIZE * TILE_SIZE));
-        mainContentPanel.add(boardPanel, BorderLayout.CENTER);
+        boardView = new BoardView(sprites, TILE_SIZE);
+        mainContentPanel.add(boardView, BorderLayout.CENTER);
 
         // Right-side Panel for score, history, timer
         JPanel rightPanel = new JPanel();
@@ -119,15 +131,31 @@ public class ChessGUI extends JFrame {
         JPanel controlPanel = new JPanel();
         JButton undoButton = new JButton("Undo");
         undoButton.addActionListener(e -> {
+            if (engineThinking) {
+                enginePlayer.stop(); // its result is discarded once the position changes
+            }
+            clearSelection();
             game.undoLastMove();
-            updateBoardAndUI();
+            // Against the computer, take back its reply as well so it is the human's turn again
+            if (isVsComputer() && game.getCurrentPlayerTurn() == enginePlayer.getColor()) {
+                game.undoLastMove();
+            }
+            startEngineMoveIfNeeded();
         });
         controlPanel.add(undoButton);
+
+        vsComputerCheckBox = new JCheckBox("Play vs Computer");
+        vsComputerCheckBox.addActionListener(e -> startEngineMoveIfNeeded());
+        controlPanel.add(vsComputerCheckBox);
+
+        engineStatsLabel = new JLabel(" ");
+        controlPanel.add(engineStatsLabel);
         add(controlPanel, BorderLayout.NORTH); // Placed at top for now
 
-        setupBoardUI();
+        clockDisplayTimer = new Timer(0, e -> refreshClocks());
+        clockDisplayTimer.setRepeats(false);
+        showGame(game);
         addMouseListenerToBoard();
-        startSwingTimer(); // Start the GUI timer updates
 
         pack();
         setLocationRelativeTo(null);
@@ -136,21 +164,8 @@ public class ChessGUI extends JFrame {
 
     // Add these new methods to calculate and update scores
     private int calculateScore(Piece.Color color) {
-        int score = 0;
-        Board board = game.getBoard();
-        
-        for (int x = 0; x < Board.SIZE; x++) {
-            for (int y = 0; y < Board.SIZE; y++) {
-                Piece piece = board.getPiece(new Point(x, y));
-                if (piece != null && piece.getColor() == color) {
-                    Integer value = PIECE_VALUES.get(piece.getClass());
-                    if (value != null) {
-                        score += value;
-                    }
-                }
-            }
-        }
-        return score;
+        // The board keeps material up to date in centipawns, so this is a single read
+        return game.getBoard().getMaterial(color) / 100;
     }
 
     private void updateScoreLabels() {
@@ -161,23 +176,35 @@ public class ChessGUI extends JFrame {
     }
 
 
-    private void updateMoveHistory() {
-        moveListModel.clear();
+    // One row per full move: the White move, then the Black move once it is played
+    private String historyRow(List<String> history, int row) {
+        int i = row * 2;
+        StringBuilder turnMove = new StringBuilder();
+        turnMove.append(String.format("%2d. %-12s", row + 1, history.get(i)));
+        if (i + 1 < history.size()) {
+            turnMove.append(String.format("%-12s", history.get(i + 1)));
+        }
+        return turnMove.toString();
+    }
+
+    // A move only ever adds a row or fills in the last one; a take-back does the reverse
+    private void updateHistoryRow(int ply) {
         List<String> history = game.getFormattedMoveHistory();
-        for (int i = 0; i < history.size(); i += 2) {
-            StringBuilder turnMove = new StringBuilder();
-            turnMove.append(String.format("%2d. %-12s", (i / 2) + 1, history.get(i)));
-            if (i + 1 < history.size()) {
-                turnMove.append(String.format("%-12s", history.get(i + 1)));
-            }
-            moveListModel.addElement(turnMove.toString());
+        int row = (ply - 1) / 2;
+        if (row * 2 >= history.size()) {
+            moveListModel.remove(row);
+        } else if (row < moveListModel.size()) {
+            moveListModel.set(row, historyRow(history, row));
+        } else {
+            moveListModel.addElement(historyRow(history, row));
         }
         if (!moveListModel.isEmpty()) {
             moveList.ensureIndexIsVisible(moveListModel.size() - 1);
         }
     }
+
     private void loadPieceImages() {
-        pieceImages = new HashMap<>();
+        Map<String, BufferedImage> pieceImages = new HashMap<>();
         String[] pieceSymbols = {"P", "R", "N", "B", "Q", "K", "p", "r", "n", "b", "q", "k"};
         String[] fileNames = {
             "white_pawn.png", "white_rook.png", "white_knight.png", "white_bishop.png",
@@ -189,8 +216,7 @@ public class ChessGUI extends JFrame {
         for (int i = 0; i < pieceSymbols.length; i++) {
             try (InputStream is = getClass().getResourceAsStream("/resources/" + fileNames[i])) {
                 if (is != null) {
-                    Image image = ImageIO.read(is);
-                    pieceImages.put(pieceSymbols[i], new ImageIcon(image));
+                    pieceImages.put(pieceSymbols[i], ImageIO.read(is));
                 } else {
                     System.err.println("Resource not found: /resources/" + fileNames[i]);
                 }
@@ -198,103 +224,43 @@ public class ChessGUI extends JFrame {
                 System.err.println("Error loading image: " + fileNames[i] + " - " + e.getMessage());
             }
         }
+        sprites = new SpriteCache(pieceImages);
     }
 
-    private void setupBoardUI() {
-        boardPanel.removeAll();
-        for (int y = 0; y < Board.SIZE; y++) {
-            for (int x = 0; x < Board.SIZE; x++) {
-                JPanel square = new JPanel(new BorderLayout());
-                Color color = ((x + y) % 2 == 0) ? new Color(240, 217, 181) : new Color(181, 136, 99);
-                square.setBackground(color);
-
-                // Default border, overridden later for highlights
-                square.setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY, 1));
-
-                Piece piece = game.getBoard().getPiece(new Point(x, y));
-                if (piece != null) {
-                    JLabel pieceLabel = new JLabel();
-                    ImageIcon icon = pieceImages.get(piece.getSymbol());
-                    if (icon != null) {
-                        Image image = icon.getImage().getScaledInstance(TILE_SIZE, TILE_SIZE, Image.SCALE_SMOOTH);
-                        pieceLabel.setIcon(new ImageIcon(image));
-                    } else {
-                        pieceLabel.setText(piece.getSymbol());
-                        pieceLabel.setFont(new Font("Arial", Font.BOLD, 40));
-                        pieceLabel.setHorizontalAlignment(SwingConstants.CENTER);
-                        pieceLabel.setVerticalAlignment(SwingConstants.CENTER);
-                    }
-                    square.add(pieceLabel, BorderLayout.CENTER);
-                }
-
-                boardPanel.add(square);
-            }
+    // Destinations as a bitboard for the board view
+    private static long squaresOf(List<Point> points) {
+        long squares = 0;
+        for (Point p : points) {
+            squares |= 1L << Board.toSquare(p);
         }
-
-        // Apply highlights after all squares are created
-        applyHighlights();
-
-        boardPanel.revalidate();
-        boardPanel.repaint();
-    }
-
-    private void applyHighlights() {
-        // Highlight selected square
-        if (selectedSquare != null) {
-            getSquarePanel(selectedSquare).setBorder(new LineBorder(Color.BLUE, 3));
-        }
-
-        // Highlight valid moves
-        for (Point p : possibleMovesToHighlight) {
-            JPanel square = getSquarePanel(p);
-            // Draw a semi-transparent circle or change background slightly
-            square.setBackground(new Color(100, 255, 100, 150)); // Greenish overlay
-            // You can also draw a dot directly on the panel
-            square.add(new JPanel() {
-                @Override
-                protected void paintComponent(Graphics g) {
-                    super.paintComponent(g);
-                    g.setColor(Color.GREEN.darker());
-                    g.fillOval(getWidth() / 2 - 10, getHeight() / 2 - 10, 20, 20);
-                }
-            }, BorderLayout.CENTER); // Add to square panel directly
-            square.setOpaque(false); // Allow background to show through
-        }
-
-        // Highlight King in check
-        if (game.isKingInCheck(game.getCurrentPlayerTurn())) {
-            Point kingPos = findKingPosition(game.getBoard(), game.getCurrentPlayerTurn());
-            if (kingPos != null) {
-                getSquarePanel(kingPos).setBorder(new LineBorder(Color.RED, 4));
-            }
-        }
-    }
-
-
-    private JPanel getSquarePanel(Point p) {
-        return (JPanel) boardPanel.getComponent(p.y * Board.SIZE + p.x);
+        return squares;
     }
 
     private void addMouseListenerToBoard() {
-        boardPanel.addMouseListener(new MouseAdapter() {
+        boardView.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                int x = e.getX() / TILE_SIZE;
-                int y = e.getY() / TILE_SIZE;
-                Point clickedPoint = new Point(x, y);
+                Point clickedPoint = boardView.squareAt(e.getPoint());
+                if (clickedPoint == null) {
+                    return;
+                }
 
-                if (game.isGameOver()) {
+                if (endResult != null) {
                     System.out.println("Game is over. No more moves.");
                     return;
                 }
+                if (engineThinking) {
+                    return; // Wait for the computer's move
+                }
 
                 if (selectedSquare == null) {
                     // First click: select a piece
                     Piece clickedPiece = game.getBoard().getPiece(clickedPoint);
                     if (clickedPiece != null && clickedPiece.getColor() == game.getCurrentPlayerTurn()) {
                         selectedSquare = clickedPoint;
-                        possibleMovesToHighlight = game.getLegalMovesForPiece(selectedSquare);
-                        setupBoardUI(); // Redraw to show selected piece and valid moves
+                        // Redraw to show selected piece and valid moves
+                        boardView.setSelection(Board.toSquare(selectedSquare),
+                                squaresOf(game.getLegalMovesForPiece(selectedSquare)));
                     } else {
                         System.out.println("No piece or not your piece at selected square.");
                         clearSelection(); // Clear any previous (invalid) selection state
@@ -310,65 +276,194 @@ public class ChessGUI extends JFrame {
                         if (clickedPoint.y == lastRank) {
                             promotedPieceType = showPromotionDialog(pieceToMove.getColor());
                             if (promotedPieceType == null) { // User cancelled promotion
-                                clearSelection();
-                                setupBoardUI(); // Redraw to clear highlights
+                                clearSelection(); // Redraws to clear highlights
                                 return;
                             }
                         }
                     }
 
-                    boolean moveSuccessful = game.makeMove(selectedSquare, clickedPoint, promotedPieceType);
-
-                    if (moveSuccessful) {
-                        updateBoardAndUI(); // Redraw board, update status, history
+                    // Always clear selection after second click; the move's own event redraws the board
+                    Point start = selectedSquare;
+                    clearSelection();
+                    if (game.makeMove(start, clickedPoint, promotedPieceType)) {
+                        startEngineMoveIfNeeded();
                     } else {
                         System.out.println("Invalid move. Please try again.");
                     }
-                    clearSelection(); // Always clear selection after second click
                 }
             }
         });
     }
 
-    private void updateBoardAndUI() {
-        // Clear old highlights
-        possibleMovesToHighlight.clear();
-        setupBoardUI();
+    // Shows a game from scratch, then follows it through its events
+    private void showGame(Game newGame) {
+        if (game != newGame) {
+            game.removeGameListener(gameEvents);
+            game.stopTimer();
+            game = newGame;
+        }
+        game.addGameListener(gameEvents);
+        GameResult result = game.getGameResult();
+        endResult = result == GameResult.IN_PROGRESS ? null : result;
+        Piece.Color turn = game.getCurrentPlayerTurn();
+        checkedKingSquare = game.isKingInCheck(turn) ? game.getBoard().getKingSquare(turn) : Board.NO_SQUARE;
+        selectedSquare = null;
+
+        List<String> history = game.getFormattedMoveHistory();
+        moveListModel.clear();
+        for (int row = 0; row * 2 < history.size(); row++) {
+            moveListModel.addElement(historyRow(history, row));
+        }
+        boardView.setSelection(Board.NO_SQUARE, 0);
+        boardView.setCheckedSquare(checkedKingSquare);
+        boardView.showPosition(game.getBoard());
         updateStatus();
-        updateMoveHistory();
         updateScoreLabels();
+        setClocks(game.getWhiteTimeMillis(), game.getBlackTimeMillis(), endResult == null ? turn : null);
+    }
+
+    private String endMessage(GameResult result) {
+        boolean whiteLost = game.getCurrentPlayerTurn() == Piece.Color.WHITE;
+        switch (result) {
+            case CHECKMATE:
+                return whiteLost ? "Black wins by checkmate!" : "White wins by checkmate!";
+            case TIMEOUT:
+                return whiteLost ? "Black wins on time!" : "White wins on time!";
+            case FIFTY_MOVE_RULE:
+                return "Game is drawn by the fifty-move rule!";
+            case THREEFOLD_REPETITION:
+                return "Game is drawn by threefold repetition!";
+            default:
+                return "Game is drawn by stalemate!";
+        }
+    }
+
+    // Applies the game's events to the view. All but a loss on time arrive on the EDT already.
+    private class GameEvents implements GameListener {
+        @Override
+        public void moveMade(Game source, MoveEvent event) {
+            onEdt(source, () -> showMove(event));
+        }
+
+        @Override
+        public void moveUndone(Game source, MoveEvent event) {
+            onEdt(source, () -> {
+                if (endResult != GameResult.TIMEOUT) {
+                    endResult = null; // A take-back reopens any other ending
+                }
+                showMove(event);
+            });
+        }
 
-        // Check for game over conditions
-        if (game.isGameOver()) {
-            swingTimer.stop(); // Stop the timer
-            String message;
-            if (game.isKingInCheck(game.getCurrentPlayerTurn())) {
-                message = (game.getCurrentPlayerTurn() == Piece.Color.WHITE ? 
-                        "Black wins by checkmate!" : "White wins by checkmate!");
+        @Override
+        public void check(Game source, Piece.Color side, int kingSquare) {
+            onEdt(source, () -> {
+                checkedKingSquare = kingSquare;
+                boardView.setCheckedSquare(kingSquare);
+                updateStatus();
+            });
+        }
+
+        @Override
+        public void gameOver(Game source, GameResult result) {
+            onEdt(source, () -> {
+                endResult = result;
+                // Let the move that ended the game finish before the modal dialog opens
+                SwingUtilities.invokeLater(() -> {
+                    if (game == source) {
+                        showEndGameDialog(endMessage(result));
+                    }
+                });
+            });
+        }
+
+        @Override
+        public void clockTick(Game source, long whiteMillis, long blackMillis, Piece.Color runningSide) {
+            onEdt(source, () -> setClocks(whiteMillis, blackMillis, runningSide));
+        }
+
+        // Events from a game that has since been replaced are dropped
+        private void onEdt(Game source, Runnable update) {
+            if (SwingUtilities.isEventDispatchThread()) {
+                if (game == source) {
+                    update.run();
+                }
             } else {
-                message = "Game is drawn by stalemate!";
+                SwingUtilities.invokeLater(() -> onEdt(source, update));
             }
-            showEndGameDialog(message);
         }
     }
+
+    // A move made or taken back changes its own squares, and ends any check shown before it
+    private void showMove(MoveEvent event) {
+        boardView.updateSquares(game.getBoard(), event.getChangedSquares());
+        if (checkedKingSquare != Board.NO_SQUARE) {
+            checkedKingSquare = Board.NO_SQUARE;
+            boardView.setCheckedSquare(Board.NO_SQUARE);
+        }
+        updateHistoryRow(event.getPly());
+        if (event.getMove().getPieceCaptured() != null || event.getMove().isPromotion()) {
+            updateScoreLabels();
+        }
+        updateStatus();
+    }
+
+    private boolean isVsComputer() {
+        return vsComputerCheckBox != null && vsComputerCheckBox.isSelected();
+    }
+
+    // Searches on the engine's thread; the move is played back here on the EDT
+    private void startEngineMoveIfNeeded() {
+        if (!isVsComputer() || engineThinking || game.getCurrentPlayerTurn() != enginePlayer.getColor()
+                || endResult != null) {
+            return;
+        }
+        engineThinking = true;
+        statusLabel.setText("Computer is thinking...");
+
+        Game searchedGame = game;
+        long searchedKey = game.getBoard().getZobristKey();
+        enginePlayer.think(game.getBoard()).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            engineThinking = false;
+            if (error != null) {
+                System.err.println("Engine search failed: " + error);
+                updateStatus();
+                return;
+            }
+            // Discard the result if the game was undone, restarted or switched to two-player meanwhile
+            if (game != searchedGame || game.getBoard().getZobristKey() != searchedKey || !isVsComputer()) {
+                startEngineMoveIfNeeded();
+                return;
+            }
+            showEngineStats(result);
+            clearSelection();
+            if (!enginePlayer.playMove(game, result)) {
+                updateStatus();
+            }
+        }));
+    }
+
+    private void showEngineStats(SearchResult result) {
+        engineStatsLabel.setText(String.format("Depth %d | %,d nodes | %,d nps",
+                result.getDepth(), result.getNodes(), result.getNodesPerSecond()));
+    }
     private Piece showPromotionDialog(Piece.Color pawnColor) {
         // Options for promotion (Queen, Rook, Bishop, Knight)
-        Object[] options = {
+        Piece[] options = {
             new Queen(pawnColor, null), new Rook(pawnColor, null),
             new Bishop(pawnColor, null), new Knight(pawnColor, null)
         };
 
-        // Custom renderer for JList to display piece symbols or images
-        ListCellRenderer<Object> renderer = new DefaultListCellRenderer() {
+        // Shows each piece's sprite, drawn from the cache at the dialog's scale, next to its name
+        JComboBox<Piece> choice = new JComboBox<>(options);
+        choice.setRenderer(new DefaultListCellRenderer() {
             @Override
             public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
                 JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
                 if (value instanceof Piece) {
                     Piece p = (Piece) value;
-                    ImageIcon icon = pieceImages.get(p.getSymbol());
-                    if (icon != null) {
-                        Image image = icon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-                        label.setIcon(new ImageIcon(image));
+                    if (sprites.hasImage(p.getSymbol())) {
+                        label.setIcon(sprites.icon(p.getSymbol(), PROMOTION_ICON_SIZE));
                         label.setText(p.getClass().getSimpleName()); // Show name next to icon
                     } else {
                         label.setText(p.getClass().getSimpleName() + " (" + p.getSymbol() + ")");
@@ -376,57 +471,29 @@ public class ChessGUI extends JFrame {
                 }
                 return label;
             }
-        };
-
+        });
 
-        Piece selectedPiece = (Piece) JOptionPane.showInputDialog(
+        int answer = JOptionPane.showConfirmDialog(
                 this,
-                "Pawn Promotion! Choose a piece:",
+                new Object[] {"Pawn Promotion! Choose a piece:", choice},
                 "Pawn Promotion",
-                JOptionPane.QUESTION_MESSAGE,
-                null, // No default icon for dialog
-                options,
-                options[0] // Default selection: Queen
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.QUESTION_MESSAGE
         );
 
-        return selectedPiece;
-    }
-
-    private void clearHighlights() {
-        for (int y = 0; y < Board.SIZE; y++) {
-            for (int x = 0; x < Board.SIZE; x++) {
-                JPanel square = getSquarePanel(new Point(x,y));
-                // Reset to original border (gray, 1px)
-                square.setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY, 1));
-                // Reset background to original checkerboard pattern
-                Color originalColor = ((x + y) % 2 == 0) ? new Color(240, 217, 181) : new Color(181, 136, 99);
-                square.setBackground(originalColor);
-                square.setOpaque(true); // Ensure it's opaque if we made it non-opaque for highlights
-                // Remove any dynamically added components (like the green dot)
-                for (Component comp : square.getComponents()) {
-                    if (comp instanceof JPanel && comp.getParent() == square) {
-                         // Check if it's our green dot component and remove it
-                        if (comp.getPreferredSize().width == 20 && comp.getPreferredSize().height == 20) { // Simple check
-                            square.remove(comp);
-                            break;
-                        }
-                    }
-                }
-            }
-        }
+        return answer == JOptionPane.OK_OPTION ? (Piece) choice.getSelectedItem() : null;
     }
 
     private void clearSelection() {
-        clearHighlights(); // This also clears valid move highlights
         selectedSquare = null;
-        possibleMovesToHighlight.clear(); // Ensure the list is empty
+        boardView.setSelection(Board.NO_SQUARE, 0);
     }
 
     private void updateStatus() {
         String turn = (game.getCurrentPlayerTurn() == Piece.Color.WHITE) ? "White" : "Black";
         String statusText = turn + "'s Turn";
 
-        if (game.isKingInCheck(game.getCurrentPlayerTurn())) {
+        if (checkedKingSquare != Board.NO_SQUARE) {
             statusText += " (in Check!)";
         }
 
@@ -434,27 +501,31 @@ public class ChessGUI extends JFrame {
     }
 
 
-    private void startSwingTimer() {
-        swingTimer = new Timer(100, new ActionListener() { // Update every 100ms
-            @Override
-            public void actionPerformed(java.awt.event.ActionEvent e) {
-                game.decrementTimer(); // Decrement game model timers
-                updateTimerLabels();    // Update GUI labels
-                if (game.isGameOver()) {
-                    swingTimer.stop(); // Stop the timer if game is over
-                    // Additional game over handling for timeout could go here
-                }
-            }
-        });
-        swingTimer.start();
+    // The clocks as of a tick; between ticks only the running side's time falls, after any delay
+    private void setClocks(long whiteMillis, long blackMillis, Piece.Color runningSide) {
+        whiteMillisAtTick = whiteMillis;
+        blackMillisAtTick = blackMillis;
+        runningClock = runningSide;
+        clockTickNanos = System.nanoTime();
+        clockDelayMillis = game.getTimeControl().getDelayMillis();
+        refreshClocks();
     }
 
-    private void updateTimerLabels() {
-        long whiteTime = game.getWhiteTimeMillis();
-        long blackTime = game.getBlackTimeMillis();
-
+    // Redraws the clocks from the last tick and sleeps until the running one shows a different second
+    private void refreshClocks() {
+        long elapsed = runningClock == null ? 0
+                : Math.max(0, (System.nanoTime() - clockTickNanos) / 1_000_000 - clockDelayMillis);
+        long whiteTime = Math.max(0, whiteMillisAtTick - (runningClock == Piece.Color.WHITE ? elapsed : 0));
+        long blackTime = Math.max(0, blackMillisAtTick - (runningClock == Piece.Color.BLACK ? elapsed : 0));
         whiteTimerLabel.setText(formatTime(whiteTime, "White"));
         blackTimerLabel.setText(formatTime(blackTime, "Black"));
+
+        clockDisplayTimer.stop();
+        long running = runningClock == Piece.Color.WHITE ? whiteTime : blackTime;
+        if (runningClock != null && running > 0) {
+            clockDisplayTimer.setInitialDelay((int) (running % 1000) + 1);
+            clockDisplayTimer.start();
+        }
     }
 
     private String formatTime(long millis, String player) {
@@ -464,18 +535,6 @@ public class ChessGUI extends JFrame {
         return String.format("%s: %02d:%02d", player, minutes, seconds);
     }
 
-    private Point findKingPosition(Board board, Piece.Color kingColor) {
-        for (int x = 0; x < Board.SIZE; x++) {
-            for (int y = 0; y < Board.SIZE; y++) {
-                Piece piece = board.getPiece(new Point(x, y));
-                if (piece instanceof King && piece.getColor() == kingColor) {
-                    return new Point(x, y);
-                }
-            }
-        }
-        return null; // Should not happen in a valid game unless King is captured
-    }
-
     private void showEndGameDialog(String message) {
     JDialog dialog = new JDialog(this, "Game Over", true);
     dialog.setLayout(new BorderLayout(10, 10));
@@ -493,10 +552,7 @@ public class ChessGUI extends JFrame {
     JButton restartButton = new JButton("New Game");
     restartButton.setFont(new Font("Arial", Font.BOLD, 14));
     restartButton.addActionListener(e -> {
-        game = new Game(); // Create new game
-        updateBoardAndUI();
-        clearSelection();
-        startSwingTimer();
+        showGame(new Game()); // Create new game
         dialog.dispose();
     });
     buttonPanel.add(restartButton);
@@ -0,0 +1,206 @@
+package ui;
+
+import javax.swing.Icon;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Piece images scaled to exactly the device pixels they are drawn at. A
+ * sprite is keyed by piece symbol, size in user-space pixels and the
+ * display's scale factor (2.0 on a typical HiDPI screen), and is scaled only
+ * the first time that combination is needed; drawing it at its size is then
+ * a plain copy of pixels. When the board changes size, a whole set is
+ * scaled on a background thread while the old one stands in, so resizing
+ * never scales images on the EDT.
+ *
+ * <p>Safe to use from any thread.
+ */
+class SpriteCache {
+    // Sizes kept at once: the board's current and previous size plus small icons such as the promotion dialog's
+    private static final int MAX_SETS = 4;
+
+    private final Map<String, BufferedImage> sources;
+    // One map of sprites by symbol per (size, scale), least recently used first
+    private final Map<SetKey, Map<String, BufferedImage>> sets = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SetKey, Map<String, BufferedImage>> eldest) {
+            return size() > MAX_SETS;
+        }
+    };
+    private final ExecutorService scaler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sprite-scaler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile SetKey latestRequest;
+
+    /** @param sources Full-size images by piece symbol. */
+    SpriteCache(Map<String, BufferedImage> sources) {
+        this.sources = new HashMap<>(sources);
+    }
+
+    private static final class SetKey {
+        final int size;
+        final double scale;
+
+        SetKey(int size, double scale) {
+            this.size = size;
+            this.scale = scale;
+        }
+
+        int devicePixels() {
+            return Math.max(1, (int) Math.round(size * scale));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof SetKey)) {
+                return false;
+            }
+            SetKey key = (SetKey) other;
+            return size == key.size && scale == key.scale;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * size + Double.hashCode(scale);
+        }
+    }
+
+    boolean hasImage(String symbol) {
+        return sources.containsKey(symbol);
+    }
+
+    /**
+     * The sprite for a piece at a size, scaling it now on the calling thread
+     * if this is the first request.
+     *
+     * @return An image of size * scale device pixels, or null if the piece has no image.
+     */
+    BufferedImage get(String symbol, int size, double scale) {
+        BufferedImage source = sources.get(symbol);
+        if (source == null) {
+            return null;
+        }
+        SetKey key = new SetKey(size, scale);
+        synchronized (sets) {
+            BufferedImage sprite = sets.computeIfAbsent(key, k -> new HashMap<>()).get(symbol);
+            if (sprite != null) {
+                return sprite;
+            }
+        }
+        BufferedImage sprite = scale(source, key.devicePixels());
+        synchronized (sets) {
+            sets.computeIfAbsent(key, k -> new HashMap<>()).put(symbol, sprite);
+        }
+        return sprite;
+    }
+
+    /**
+     * For painting while a size is being prepared: the exact sprite if it is
+     * ready, otherwise the same piece from the cached set whose device-pixel
+     * size is closest, to be stretched until the right one arrives. Scales on
+     * the calling thread only if the piece has never been scaled at all.
+     */
+    BufferedImage getOrNearest(String symbol, int size, double scale) {
+        SetKey wanted = new SetKey(size, scale);
+        synchronized (sets) {
+            Map<String, BufferedImage> exact = sets.get(wanted);
+            if (exact != null && exact.containsKey(symbol)) {
+                return exact.get(symbol);
+            }
+            BufferedImage nearest = null;
+            int nearestDistance = Integer.MAX_VALUE;
+            // Iterating does not reorder the LRU; on a tie the most recently used set wins
+            for (Map.Entry<SetKey, Map<String, BufferedImage>> entry : sets.entrySet()) {
+                BufferedImage sprite = entry.getValue().get(symbol);
+                int distance = Math.abs(entry.getKey().devicePixels() - wanted.devicePixels());
+                if (sprite != null && distance <= nearestDistance) {
+                    nearest = sprite;
+                    nearestDistance = distance;
+                }
+            }
+            if (nearest != null) {
+                return nearest;
+            }
+        }
+        return get(symbol, size, scale);
+    }
+
+    /**
+     * Scales every piece for a size on the background thread, then runs the
+     * callback on the EDT. While a window is dragged only the latest size is
+     * scaled; requests overtaken by a newer one are skipped.
+     */
+    void prepare(int size, double scale, Runnable whenReady) {
+        SetKey key = new SetKey(size, scale);
+        synchronized (sets) {
+            Map<String, BufferedImage> set = sets.get(key);
+            if (set != null && set.size() == sources.size()) {
+                return;
+            }
+        }
+        latestRequest = key;
+        scaler.execute(() -> {
+            if (latestRequest != key) {
+                return;
+            }
+            for (String symbol : sources.keySet()) {
+                get(symbol, size, scale);
+            }
+            SwingUtilities.invokeLater(whenReady);
+        });
+    }
+
+    /** An icon of the given size that draws the cached sprite for whatever display it is painted on. */
+    Icon icon(String symbol, int size) {
+        return new Icon() {
+            @Override
+            public void paintIcon(Component c, Graphics g, int x, int y) {
+                BufferedImage sprite = get(symbol, size, ((Graphics2D) g).getTransform().getScaleX());
+                if (sprite != null) {
+                    g.drawImage(sprite, x, y, size, size, null);
+                }
+            }
+
+            @Override
+            public int getIconWidth() {
+                return size;
+            }
+
+            @Override
+            public int getIconHeight() {
+                return size;
+            }
+        };
+    }
+
+    // Halves the image with bilinear filtering until one more step reaches the size, so every source
+    // pixel still counts; slow next to a blit, but done once per sprite
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= size && current.getHeight() / 2 >= size) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return resize(current, size, size);
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = result.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return result;
+    }
+}
\ No newline at end of file